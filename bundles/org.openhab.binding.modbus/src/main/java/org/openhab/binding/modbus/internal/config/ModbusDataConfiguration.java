@@ -41,6 +41,8 @@ public class ModbusDataConfiguration {
     private boolean writeMultipleEvenWithSingleRegisterOrCoil;
     private int writeMaxTries = 3; // backwards compatibility and tests
     private long updateUnchangedValuesEveryMillis = 1000L;
+    private double updateDeadband;
+    private double updateDeadbandPercent;
 
     public @Nullable String getReadStart() {
         return readStart;
@@ -121,4 +123,20 @@ public class ModbusDataConfiguration {
     public void setUpdateUnchangedValuesEveryMillis(long updateUnchangedValuesEveryMillis) {
         this.updateUnchangedValuesEveryMillis = updateUnchangedValuesEveryMillis;
     }
+
+    public double getUpdateDeadband() {
+        return updateDeadband;
+    }
+
+    public void setUpdateDeadband(double updateDeadband) {
+        this.updateDeadband = updateDeadband;
+    }
+
+    public double getUpdateDeadbandPercent() {
+        return updateDeadbandPercent;
+    }
+
+    public void setUpdateDeadbandPercent(double updateDeadbandPercent) {
+        this.updateDeadbandPercent = updateDeadbandPercent;
+    }
 }
@@ -44,6 +44,7 @@ public class ModbusSerialConfiguration {
     private int connectMaxTries;
     private int connectTimeoutMillis;
     private boolean enableDiscovery;
+    private int coalescingMaxGap = -1;
 
     public @Nullable String getPort() {
         return port;
@@ -164,4 +165,13 @@ public class ModbusSerialConfiguration {
     public void setDiscoveryEnabled(boolean enableDiscovery) {
         this.enableDiscovery = enableDiscovery;
     }
+
+    public int getCoalescingMaxGap() {
+        return coalescingMaxGap;
+    }
+
+    public void setCoalescingMaxGap(int coalescingMaxGap) {
+        this.coalescingMaxGap = coalescingMaxGap;
+    }
+
 }
@@ -33,6 +33,8 @@ public class ModbusTcpConfiguration {
     private int reconnectAfterMillis;
     private int connectTimeoutMillis;
     private boolean enableDiscovery;
+    private int coalescingMaxGap = -1;
+    private int pipelineMaxInFlight = 1;
 
     public @Nullable String getHost() {
         return host;
@@ -106,4 +108,20 @@ public class ModbusTcpConfiguration {
         this.enableDiscovery = enableDiscovery;
     }
 
+    public int getCoalescingMaxGap() {
+        return coalescingMaxGap;
+    }
+
+    public void setCoalescingMaxGap(int coalescingMaxGap) {
+        this.coalescingMaxGap = coalescingMaxGap;
+    }
+
+    public int getPipelineMaxInFlight() {
+        return pipelineMaxInFlight;
+    }
+
+    public void setPipelineMaxInFlight(int pipelineMaxInFlight) {
+        this.pipelineMaxInFlight = pipelineMaxInFlight;
+    }
+
 }
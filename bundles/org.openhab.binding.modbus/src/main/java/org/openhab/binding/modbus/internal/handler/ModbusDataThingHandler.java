@@ -41,6 +41,7 @@ import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
@@ -139,6 +140,8 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
     private volatile int pollStart;
     private volatile int slaveId;
     private volatile long updateUnchangedValuesEveryMillis;
+    private volatile double updateDeadband;
+    private volatile double updateDeadbandPercent;
     private volatile @Nullable ModbusSlaveEndpoint slaveEndpoint;
     private volatile @Nullable ModbusManager manager;
     private volatile @Nullable PollTask pollTask;
@@ -342,6 +345,8 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             logger.trace("initialize() of thing {} '{}' starting", thing.getUID(), thing.getLabel());
             config = getConfigAs(ModbusDataConfiguration.class);
             updateUnchangedValuesEveryMillis = config.getUpdateUnchangedValuesEveryMillis();
+            updateDeadband = config.getUpdateDeadband();
+            updateDeadbandPercent = config.getUpdateDeadbandPercent();
             Bridge bridge = getBridge();
             if (bridge == null) {
                 logger.debug("Thing {} '{}' has no bridge", getThing().getUID(), getThing().getLabel());
@@ -827,6 +832,10 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
                 if (boolLikeState != null) {
                     // A bit of smartness for ON/OFF and OPEN/CLOSED with boolean like items
                     transformedState = boolLikeState;
+                } else if (numericState.getClass().equals(acceptedDataTypes.get(0))) {
+                    // State is already of the preferred type of the channel (e.g. DecimalType with number channels),
+                    // parsing it from its string representation would result in an equal state
+                    transformedState = numericState;
                 } else {
                     // Numeric states always go through transformation. This allows value of 17.5 to be
                     // converted to
@@ -869,7 +878,6 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             long now = System.currentTimeMillis();
             // Update channels that have not been updated in a while, or when their values has changed
             states.forEach((uid, state) -> updateExpiredChannel(now, uid, state));
-            channelLastState = states;
         }
     }
 
@@ -879,12 +887,56 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         long lastUpdatedMillis = channelLastUpdated.getOrDefault(uid, 0L);
         long millisSinceLastUpdate = now - lastUpdatedMillis;
         if (lastUpdatedMillis <= 0L || lastState == null || updateUnchangedValuesEveryMillis <= 0L
-                || millisSinceLastUpdate > updateUnchangedValuesEveryMillis || !lastState.equals(state)) {
+                || millisSinceLastUpdate > updateUnchangedValuesEveryMillis || isChanged(lastState, state)) {
             tryUpdateState(uid, state);
             channelLastUpdated.put(uid, now);
+            channelLastState.put(uid, state);
         }
     }
 
+    /**
+     * Whether the state has changed compared to the last updated state.
+     *
+     * Numeric states are considered unchanged when the difference is within the configured deadbands. The state is
+     * compared to the last updated state (not the last polled state), so that slow drift is updated eventually.
+     *
+     * @param lastState state last updated to the channel
+     * @param state new state
+     * @return true if the channel should be updated
+     */
+    private boolean isChanged(State lastState, State state) {
+        if (lastState.equals(state)) {
+            return false;
+        }
+        double deadband = updateDeadband;
+        double deadbandPercent = updateDeadbandPercent;
+        if (deadband <= 0 && deadbandPercent <= 0) {
+            return true;
+        }
+        final double lastValue;
+        final double value;
+        if (lastState instanceof DecimalType && state instanceof DecimalType) {
+            lastValue = ((DecimalType) lastState).doubleValue();
+            value = ((DecimalType) state).doubleValue();
+        } else if (lastState instanceof QuantityType && state instanceof QuantityType
+                && ((QuantityType<?>) lastState).getUnit().equals(((QuantityType<?>) state).getUnit())) {
+            lastValue = ((QuantityType<?>) lastState).doubleValue();
+            value = ((QuantityType<?>) state).doubleValue();
+        } else {
+            // not comparable numerically, e.g. change to UNDEF
+            return true;
+        }
+        double change = Math.abs(value - lastValue);
+        boolean changed = true;
+        if (deadband > 0) {
+            changed &= change > deadband;
+        }
+        if (deadbandPercent > 0) {
+            changed &= change > Math.abs(lastValue) * deadbandPercent / 100;
+        }
+        return changed;
+    }
+
     private void tryUpdateState(ChannelUID uid, State state) {
         try {
             updateState(uid, state);
@@ -61,6 +61,8 @@ public class ModbusTcpThingHandler
         poolConfiguration.setInterConnectDelayMillis(config.getTimeBetweenReconnectMillis());
         poolConfiguration.setInterTransactionDelayMillis(config.getTimeBetweenTransactionsMillis());
         poolConfiguration.setReconnectAfterMillis(config.getReconnectAfterMillis());
+        poolConfiguration.setCoalescingMaxGap(config.getCoalescingMaxGap());
+        poolConfiguration.setPipelineMaxInFlight(config.getPipelineMaxInFlight());
     }
 
     @Override
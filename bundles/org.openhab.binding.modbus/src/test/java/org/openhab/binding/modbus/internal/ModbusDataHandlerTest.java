@@ -732,6 +732,36 @@ public class ModbusDataHandlerTest extends JavaTest {
         // no datetime, conversion not possible without transformation
     }
 
+    @SuppressWarnings("null")
+    @Test
+    public void testOnRegistersDeadband() {
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        doReturn(3).when(request).getDataLength();
+        doReturn(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS).when(request).getFunctionCode();
+        PollTask task = Mockito.mock(PollTask.class);
+        doReturn(new ModbusTCPSlaveEndpoint("thisishost", 502)).when(task).getEndpoint();
+        doReturn(request).when(task).getRequest();
+        Bridge poller = createPollerMock("poller1", task);
+
+        Configuration dataConfig = new Configuration();
+        dataConfig.put("readStart", "0");
+        dataConfig.put("readTransform", "default");
+        dataConfig.put("readValueType", "int16");
+        dataConfig.put("updateUnchangedValuesEveryMillis", 3600000L);
+        dataConfig.put("updateDeadband", 2);
+        ModbusDataThingHandler dataHandler = createDataHandler("read1", poller,
+                builder -> builder.withConfiguration(dataConfig));
+        assertThat(dataHandler.getThing().getStatus(), is(equalTo(ThingStatus.ONLINE)));
+
+        // 101 and 102 are within the deadband of last updated 100, 103 is not
+        for (int value : new int[] { 100, 101, 102, 103, 101 }) {
+            dataHandler.onRegisters(request, new BasicModbusRegisterArray(value));
+        }
+
+        List<State> updates = stateUpdates.get(dataHandler.getThing().getChannel(CHANNEL_NUMBER).getUID());
+        assertThat(updates, is(equalTo(Arrays.asList(new DecimalType(100), new DecimalType(103)))));
+    }
+
     private void mockTransformation(String name, TransformationService service) throws InvalidSyntaxException {
         doReturn(Arrays.asList(new Object[] { null })).when(bundleContext)
                 .getServiceReferences(TransformationService.class, "(smarthome.transform=" + name + ")");
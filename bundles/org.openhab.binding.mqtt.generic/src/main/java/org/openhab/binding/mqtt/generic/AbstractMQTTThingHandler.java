@@ -31,6 +31,7 @@ import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.binding.mqtt.generic.tools.ChannelStateUpdateCoalescer;
 import org.openhab.binding.mqtt.handler.AbstractBrokerHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +59,9 @@ import org.slf4j.LoggerFactory;
  * While setting up your {@link ChannelState} you would set the callback to your thing handler,
  * because this base class implements {@link ChannelStateUpdateListener}.
  *
+ * <p>
+ * State updates of high-rate publishers can optionally be coalesced, see {@link UpdateCoalescingConfig}.
+ *
  * @author David Graeff - Initial contribution
  */
 @NonNullByDefault
@@ -67,6 +71,7 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler implemen
     private final int subscribeTimeout;
 
     protected @Nullable MqttBrokerConnection connection;
+    protected @Nullable ChannelStateUpdateCoalescer updateCoalescer;
 
     public AbstractMQTTThingHandler(Thing thing, int subscribeTimeout) {
         super(thing);
@@ -142,12 +147,14 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler implemen
     public void bridgeStatusChanged(ThingStatusInfo bridgeStatusInfo) {
         if (bridgeStatusInfo.getStatus() == ThingStatus.OFFLINE) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.BRIDGE_OFFLINE);
+            clearPendingUpdates();
             stop();
             connection = null;
             return;
         }
         if (bridgeStatusInfo.getStatus() != ThingStatus.ONLINE) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR);
+            clearPendingUpdates();
             stop();
             return;
         }
@@ -207,6 +214,10 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler implemen
 
     @Override
     public void initialize() {
+        UpdateCoalescingConfig coalescingConfig = getConfigAs(UpdateCoalescingConfig.class);
+        updateCoalescer = coalescingConfig.isEnabled()
+                ? new ChannelStateUpdateCoalescer(coalescingConfig, super::updateState, scheduler)
+                : null;
         bridgeStatusChanged(getBridgeStatus());
     }
 
@@ -218,6 +229,7 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler implemen
 
     @Override
     public void dispose() {
+        clearPendingUpdates();
         stop();
         try {
             unsubscribeAll().get(500, TimeUnit.MILLISECONDS);
@@ -237,7 +249,37 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler implemen
 
     @Override
     public void updateChannelState(ChannelUID channelUID, State value) {
-        super.updateState(channelUID, value);
+        final ChannelStateUpdateCoalescer coalescer = updateCoalescer;
+        if (coalescer != null) {
+            coalescer.update(channelUID, value);
+        } else {
+            super.updateState(channelUID, value);
+        }
+    }
+
+    private void clearPendingUpdates() {
+        final ChannelStateUpdateCoalescer coalescer = updateCoalescer;
+        if (coalescer != null) {
+            coalescer.clear();
+        }
+    }
+
+    /**
+     * Return the number of channel state updates that got replaced by a newer value, because
+     * update coalescing is enabled.
+     */
+    public long getCoalescedUpdateCount() {
+        final ChannelStateUpdateCoalescer coalescer = updateCoalescer;
+        return coalescer != null ? coalescer.getCoalescedCount() : 0;
+    }
+
+    /**
+     * Return the number of channel state updates that were never passed on, because
+     * update coalescing is enabled.
+     */
+    public long getDroppedUpdateCount() {
+        final ChannelStateUpdateCoalescer coalescer = updateCoalescer;
+        return coalescer != null ? coalescer.getDroppedCount() : 0;
     }
 
     @Override
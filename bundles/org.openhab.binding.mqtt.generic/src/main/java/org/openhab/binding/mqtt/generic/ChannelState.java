@@ -31,6 +31,7 @@ import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.binding.mqtt.generic.values.Value;
+import org.openhab.binding.mqtt.handler.MqttTopicDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -151,6 +152,16 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        // Fast path: plain values are parsed without creating a string
+        Command command = null;
+        if (transformationsIn.isEmpty() && !config.trigger) {
+            command = cachedValue.parseCommand(payload);
+        }
+        if (command != null) {
+            processCommand(channelStateUpdateListener, command);
+            return;
+        }
+
         // String value: Apply transformations
         String strValue = new String(payload, StandardCharsets.UTF_8);
         for (ChannelStateTransformation t : transformationsIn) {
@@ -172,7 +183,7 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
-        Command command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strValue);
+        command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strValue);
         if (command == null) {
             logger.warn("Incoming payload '{}' not supported by type '{}'", strValue,
                     cachedValue.getClass().getSimpleName());
@@ -180,6 +191,13 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        processCommand(channelStateUpdateListener, command);
+    }
+
+    /**
+     * Update the cached value with the parsed command and notify the listener
+     */
+    private void processCommand(ChannelStateUpdateListener channelStateUpdateListener, Command command) {
         Command postOnlyCommand = cachedValue.isPostOnly(command);
         if (postOnlyCommand != null) {
             channelStateUpdateListener.postChannelCommand(channelUID, postOnlyCommand);
@@ -191,7 +209,7 @@ public class ChannelState implements MqttMessageSubscriber {
         try {
             cachedValue.update(command);
         } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Command '{}' not supported by type '{}': {}", strValue, cachedValue.getClass().getSimpleName(),
+            logger.warn("Command '{}' not supported by type '{}': {}", command, cachedValue.getClass().getSimpleName(),
                     e.getMessage());
             receivedOrTimeout();
             return;
@@ -242,7 +260,7 @@ public class ChannelState implements MqttMessageSubscriber {
     public CompletableFuture<@Nullable Void> stop() {
         final MqttBrokerConnection connection = this.connection;
         if (connection != null && StringUtils.isNotBlank(config.stateTopic)) {
-            return connection.unsubscribe(config.stateTopic, this).thenRun(this::internalStop);
+            return MqttTopicDispatcher.unsubscribe(connection, config.stateTopic, this).thenRun(this::internalStop);
         } else {
             internalStop();
             return CompletableFuture.completedFuture(null);
@@ -301,7 +319,7 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         this.future = new CompletableFuture<>();
-        connection.subscribe(config.stateTopic, this).thenRun(() -> {
+        MqttTopicDispatcher.subscribe(connection, config.stateTopic, this).thenRun(() -> {
             hasSubscribed = true;
             logger.debug("Subscribed channel {} to topic: {}", this.channelUID, config.stateTopic);
             if (timeout > 0 && !future.isDone()) {
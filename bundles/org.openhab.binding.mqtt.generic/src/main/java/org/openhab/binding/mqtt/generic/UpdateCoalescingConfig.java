@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Thing configuration for coalescing channel state updates of high-rate MQTT publishers.
+ * Coalescing is disabled if neither {@link #coalesceWindow} nor {@link #maxUpdateRate} is set.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class UpdateCoalescingConfig {
+    /** Window in milliseconds in which only the latest received value of a channel is passed on. 0 disables. */
+    public int coalesceWindow = 0;
+    /** Maximum number of state updates per second and channel. 0 means unlimited. */
+    public int maxUpdateRate = 0;
+    /**
+     * If true, a changed value is passed on immediately, as long as the update rate allows it.
+     * The window then only applies to repeated values.
+     */
+    public boolean passOnChange = false;
+
+    public boolean isEnabled() {
+        return coalesceWindow > 0 || maxUpdateRate > 0;
+    }
+}
@@ -18,6 +18,7 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
@@ -25,6 +26,7 @@ import java.util.stream.Collectors;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.binding.mqtt.handler.MqttTopicDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -145,7 +147,8 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
             return CompletableFuture.completedFuture(null);
         }
 
-        final CompletableFuture<?>[] futures = subscriptions.stream().map(m -> connection.unsubscribe(m.topic, m))
+        final CompletableFuture<?>[] futures = subscriptions.stream()
+                .map(m -> MqttTopicDispatcher.unsubscribe(connection, m.topic, m))
                 .toArray(CompletableFuture[]::new);
         subscriptions.clear();
         return CompletableFuture.allOf(futures);
@@ -170,6 +173,20 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
     public CompletableFuture<@Nullable Void> subscribeAndReceive(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, String basetopic, @Nullable AttributeChanged attributeChangedListener,
             int timeout) {
+        return subscribeAndReceive(connection, scheduler, basetopic, attributeChangedListener, timeout, null);
+    }
+
+    /**
+     * Like {@link #subscribeAndReceive(MqttBrokerConnection, ScheduledExecutorService, String, AttributeChanged, int)},
+     * but with the retained values of the topics already known, for example from a wildcard subscription.
+     * The returned future does not wait for any values then, topics without a retained value are treated like a
+     * timeout.
+     *
+     * @param retainedValues A map of full topics to retained values. Null to wait for the values of each topic.
+     */
+    public CompletableFuture<@Nullable Void> subscribeAndReceive(MqttBrokerConnection connection,
+            ScheduledExecutorService scheduler, String basetopic, @Nullable AttributeChanged attributeChangedListener,
+            int timeout, @Nullable Map<String, byte[]> retainedValues) {
         // We first need to unsubscribe old subscriptions if any
         final CompletableFuture<@Nullable Void> startFuture;
         if (subscriptions.size() > 0) {
@@ -192,7 +209,9 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
                 .map(this::mapFieldToSubscriber).collect(Collectors.toList());
 
         final CompletableFuture<?>[] futures = subscriptions.stream()
-                .map(m -> m.subscribeAndReceive(connection, timeout)).toArray(CompletableFuture[]::new);
+                .map(m -> retainedValues != null ? m.subscribeAndReceive(connection, retainedValues.get(m.topic))
+                        : m.subscribeAndReceive(connection, timeout))
+                .toArray(CompletableFuture[]::new);
         return CompletableFuture.allOf(startFuture, CompletableFuture.allOf(futures));
     }
 
@@ -25,6 +25,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttException;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.handler.MqttTopicDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,6 +48,7 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private final boolean mandatory;
     private boolean receivedValue = false;
+    private @Nullable String receivedPayload;
 
     /**
      * Implement this interface to be notified of an updated field.
@@ -140,6 +142,11 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
         }
 
         String valueStr = new String(payload, StandardCharsets.UTF_8);
+        // The same retained value may be received again, if it was already known before subscribing
+        if (receivedValue && valueStr.equals(receivedPayload)) {
+            return;
+        }
+        receivedPayload = valueStr;
 
         // Check if there is a manipulation annotation attached to the field
         final MQTTvalueTransform transform = field.getAnnotation(MQTTvalueTransform.class);
@@ -180,7 +187,7 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
      * @throws MqttException If an MQTT IO exception happens this exception is thrown.
      */
     public CompletableFuture<@Nullable Void> subscribeAndReceive(MqttBrokerConnection connection, int timeout) {
-        connection.subscribe(topic, this).exceptionally(e -> {
+        MqttTopicDispatcher.subscribe(connection, topic, this).exceptionally(e -> {
             logger.debug("Failed to subscribe to topic {}", topic, e);
             final ScheduledFuture<?> scheduledFuture = this.scheduledFuture;
             if (scheduledFuture != null) { // Cancel timeout
@@ -197,6 +204,29 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
         return future;
     }
 
+    /**
+     * Subscribe to the MQTT topic, with the retained value of the topic already known, for example
+     * from a wildcard subscription. The field is set immediately. A missing retained value is treated like
+     * a timeout.
+     *
+     * @param connection An MQTT connection.
+     * @param retainedValue The retained value or null if the topic has no retained value.
+     * @return Returns a future that is already completed, exceptionally if a mandatory value is missing.
+     */
+    public CompletableFuture<@Nullable Void> subscribeAndReceive(MqttBrokerConnection connection,
+            byte @Nullable [] retainedValue) {
+        if (retainedValue != null) {
+            processMessage(topic, retainedValue);
+        } else {
+            timeoutReached();
+        }
+        MqttTopicDispatcher.subscribe(connection, topic, this).exceptionally(e -> {
+            logger.debug("Failed to subscribe to topic {}", topic, e);
+            return false;
+        });
+        return future;
+    }
+
     /**
      * Return true if the corresponding field has received a value at least once.
      */
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.mqtt.generic.UpdateCoalescingConfig;
+
+/**
+ * Coalesces channel state updates: Within a window only the latest value of a channel is passed on
+ * (latest value wins) and the number of updates per channel and second can be limited.
+ * If configured, changed values are passed on immediately, as long as the rate limit allows it. The window
+ * then only applies to repeated values.
+ * <p>
+ * Pending values of all channels are collected by one {@link DelayedBatchProcessing}, the window
+ * therefore starts with the first pending value of any channel. Values of channels that are not due yet
+ * because of the rate limit are processed again as soon as the channel is due.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ChannelStateUpdateCoalescer {
+    private final BiConsumer<ChannelUID, State> consumer;
+    private final DelayedBatchProcessing<ChannelUID> delayedProcessing;
+    private final ScheduledExecutorService executor;
+    private final Map<ChannelUID, Entry> entries = new ConcurrentHashMap<>();
+    private final long minInterval;
+    private final boolean passOnChange;
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private static class Entry {
+        @Nullable
+        State lastState;
+        long lastUpdate;
+        @Nullable
+        State pendingState;
+    }
+
+    /**
+     * Creates a {@link ChannelStateUpdateCoalescer}.
+     *
+     * @param config The coalescing configuration. Must be enabled.
+     * @param consumer Receives the coalesced state updates
+     * @param executor A scheduled executor service
+     */
+    public ChannelStateUpdateCoalescer(UpdateCoalescingConfig config, BiConsumer<ChannelUID, State> consumer,
+            ScheduledExecutorService executor) {
+        this.consumer = consumer;
+        this.executor = executor;
+        this.minInterval = config.maxUpdateRate > 0 ? 1000 / config.maxUpdateRate : 0;
+        this.passOnChange = config.passOnChange;
+        int delay = (int) Math.max(config.coalesceWindow, minInterval);
+        this.delayedProcessing = new DelayedBatchProcessing<>(Math.max(delay, 1), this::processPending, executor);
+    }
+
+    /**
+     * Pass on the given state now or keep it until the window is over.
+     *
+     * @param channelUID The channel UID
+     * @param state The new state
+     */
+    public void update(ChannelUID channelUID, State state) {
+        Entry entry = entries.computeIfAbsent(channelUID, uid -> new Entry());
+        boolean schedule;
+        synchronized (entry) {
+            long now = System.currentTimeMillis();
+            if (passOnChange && !state.equals(entry.lastState) && now - entry.lastUpdate >= minInterval) {
+                if (entry.pendingState != null) {
+                    entry.pendingState = null;
+                    dropped.incrementAndGet();
+                }
+                entry.lastState = state;
+                entry.lastUpdate = now;
+                consumer.accept(channelUID, state);
+                return;
+            }
+            schedule = entry.pendingState == null;
+            if (!schedule) {
+                coalesced.incrementAndGet();
+            }
+            entry.pendingState = state;
+        }
+        if (schedule) {
+            delayedProcessing.accept(channelUID);
+        }
+    }
+
+    private void processPending(List<ChannelUID> channelUIDs) {
+        long now = System.currentTimeMillis();
+        List<ChannelUID> deferred = new ArrayList<>();
+        long retryDelay = minInterval;
+        for (ChannelUID channelUID : channelUIDs) {
+            Entry entry = entries.get(channelUID);
+            if (entry == null) {
+                continue;
+            }
+            synchronized (entry) {
+                State state = entry.pendingState;
+                if (state == null) {
+                    continue;
+                }
+                if (now - entry.lastUpdate < minInterval) {
+                    // The shared window closed too early for this channel, keep the value until it is due
+                    deferred.add(channelUID);
+                    retryDelay = Math.min(retryDelay, entry.lastUpdate + minInterval - now);
+                    continue;
+                }
+                entry.pendingState = null;
+                entry.lastState = state;
+                entry.lastUpdate = now;
+                consumer.accept(channelUID, state);
+            }
+        }
+        if (!deferred.isEmpty()) {
+            // Not via delayedProcessing: Its timer counts as running until this batch is processed
+            executor.schedule(() -> processPending(deferred), Math.max(retryDelay, 1), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Discard all pending values and forget the last passed on values.
+     */
+    public void clear() {
+        delayedProcessing.join();
+        entries.values().forEach(entry -> {
+            synchronized (entry) {
+                if (entry.pendingState != null) {
+                    dropped.incrementAndGet();
+                }
+            }
+        });
+        entries.clear();
+    }
+
+    /**
+     * Return the number of values that got replaced by a newer value within the window.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Return the number of pending values that were never passed on, either because a changed value
+     * was passed on immediately or because the channel was stopped.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
@@ -120,6 +120,12 @@ public class PercentageValue extends Value {
         }
     }
 
+    @Override
+    public @Nullable Command parseCommand(byte[] payload) {
+        // Numbers are parsed as DecimalType, all other payloads the regular way
+        return parseDecimal(payload);
+    }
+
     @Override
     public String getMQTTpublishValue() {
         if (state == UnDefType.UNDEF) {
@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic.values;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.net.URLConnection;
 import java.util.Collections;
 import java.util.List;
@@ -122,6 +123,64 @@ public abstract class Value {
      */
     public abstract void update(Command command) throws IllegalArgumentException;
 
+    /**
+     * Parses the UTF-8 encoded MQTT payload into one of the supported command types directly, without creating a
+     * string and trying all supported command types in turn.
+     *
+     * Implementations must return the same command as
+     * {@link org.eclipse.smarthome.core.types.TypeParser#parseCommand(List, String)} would, or a command that has the
+     * same effect on {@link #update(Command)}.
+     *
+     * @param payload The MQTT payload
+     * @return The command, or null if the payload needs to be parsed the regular way
+     */
+    public @Nullable Command parseCommand(byte[] payload) {
+        return null;
+    }
+
+    /**
+     * Parses an UTF-8 encoded decimal number, like {@link DecimalType#valueOf(String)}.
+     *
+     * @param payload The MQTT payload
+     * @return The number, or null if the payload is not a plain decimal number
+     */
+    protected static @Nullable DecimalType parseDecimal(byte[] payload) {
+        final int length = payload.length;
+        if (length == 0) {
+            return null;
+        }
+        int start = payload[0] == '-' || payload[0] == '+' ? 1 : 0;
+        // Integers of up to 18 digits fit into a long
+        if (length > start && length - start <= 18) {
+            long value = 0;
+            int i = start;
+            for (; i < length; i++) {
+                final byte b = payload[i];
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                value = value * 10 + (b - '0');
+            }
+            if (i == length) {
+                return new DecimalType(payload[0] == '-' ? -value : value);
+            }
+        }
+        // Other numbers consist of ASCII characters only, which map one to one to chars
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            final byte b = payload[i];
+            if ((b < '0' || b > '9') && b != '.' && b != '-' && b != '+' && b != 'e' && b != 'E') {
+                return null;
+            }
+            chars[i] = (char) b;
+        }
+        try {
+            return new DecimalType(new BigDecimal(chars));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     /**
      * Returns the given command if it cannot be handled by {@link #update(Command)}
      * or {@link #update(byte[])} and need to be posted straight to the framework instead.
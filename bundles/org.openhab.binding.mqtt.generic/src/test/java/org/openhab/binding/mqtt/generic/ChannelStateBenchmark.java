@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.TypeParser;
+import org.openhab.binding.mqtt.generic.values.NumberValue;
+import org.openhab.binding.mqtt.generic.values.OnOffValue;
+import org.openhab.binding.mqtt.generic.values.PercentageValue;
+import org.openhab.binding.mqtt.generic.values.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Processes a batch of 10000 MQTT messages, i.e. one second of a 10k msg/s workload of plain sensor values.
+ * Compares {@link ChannelState#processMessage(String, byte[])} with the earlier way of decoding the payload to a
+ * string and parsing it with {@link TypeParser}.
+ *
+ * Run the main method from the IDE or with the test classpath, it is not part of the unit tests.
+ *
+ * @author agent - Initial contribution
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(ChannelStateBenchmark.MESSAGES)
+public class ChannelStateBenchmark {
+
+    static final int MESSAGES = 10000;
+
+    /**
+     * Listener discarding all updates
+     */
+    private static class DiscardingListener implements ChannelStateUpdateListener {
+        @Override
+        public void updateChannelState(ChannelUID channelUID, State value) {
+        }
+
+        @Override
+        public void postChannelCommand(ChannelUID channelUID, Command value) {
+        }
+
+        @Override
+        public void triggerChannel(ChannelUID channelUID, String eventPayload) {
+        }
+    }
+
+    @Param({ "number", "percentage", "onoff" })
+    public String valueType = "number";
+
+    private Value value;
+    private ChannelState channelState;
+    private byte[][] payloads;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        payloads = new byte[MESSAGES][];
+        switch (valueType) {
+            case "percentage":
+                value = new PercentageValue(null, null, null, null, null);
+                for (int i = 0; i < MESSAGES; i++) {
+                    payloads[i] = String.valueOf(random.nextInt(101)).getBytes(StandardCharsets.UTF_8);
+                }
+                break;
+            case "onoff":
+                value = new OnOffValue("1", "0");
+                for (int i = 0; i < MESSAGES; i++) {
+                    payloads[i] = (random.nextBoolean() ? "1" : "0").getBytes(StandardCharsets.UTF_8);
+                }
+                break;
+            default:
+                value = new NumberValue(null, null, null);
+                for (int i = 0; i < MESSAGES; i++) {
+                    payloads[i] = String.format(Locale.ROOT, "%.2f", random.nextDouble() * 100 - 20)
+                            .getBytes(StandardCharsets.UTF_8);
+                }
+                break;
+        }
+        channelState = new ChannelState(ChannelConfigBuilder.create("state", null).build(),
+                new ChannelUID("mqtt:topic:broker:thing:channel"), value, new DiscardingListener());
+    }
+
+    @Benchmark
+    public void processMessage(Blackhole blackhole) {
+        for (byte[] payload : payloads) {
+            channelState.processMessage("state", payload);
+        }
+        blackhole.consume(value.getChannelState());
+    }
+
+    @Benchmark
+    public void parseViaString(Blackhole blackhole) {
+        for (byte[] payload : payloads) {
+            Command command = TypeParser.parseCommand(value.getSupportedCommandTypes(),
+                    new String(payload, StandardCharsets.UTF_8));
+            value.update(command);
+        }
+        blackhole.consume(value.getChannelState());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ChannelStateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openhab.binding.mqtt.generic.UpdateCoalescingConfig;
+
+/**
+ * Tests the {@link ChannelStateUpdateCoalescer}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ChannelStateUpdateCoalescerTests {
+    private final ChannelUID channelUID = new ChannelUID("mqtt:topic:broker:thing:channel");
+
+    @Mock
+    private ScheduledExecutorService executor;
+
+    @Mock
+    private ScheduledFuture<?> future;
+
+    @Mock
+    private BiConsumer<ChannelUID, State> consumer;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(future).when(executor).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    private Runnable scheduledRunnable() {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).schedule(captor.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        return captor.getValue();
+    }
+
+    @Test
+    public void latestValueWins() {
+        UpdateCoalescingConfig config = new UpdateCoalescingConfig();
+        config.coalesceWindow = 100;
+        config.passOnChange = false;
+        ChannelStateUpdateCoalescer coalescer = new ChannelStateUpdateCoalescer(config, consumer, executor);
+
+        coalescer.update(channelUID, new DecimalType(1));
+        coalescer.update(channelUID, new DecimalType(2));
+        coalescer.update(channelUID, new DecimalType(3));
+        verify(consumer, never()).accept(any(), any());
+
+        scheduledRunnable().run();
+        verify(consumer).accept(channelUID, new DecimalType(3));
+        verifyNoMoreInteractions(consumer);
+        assertThat(coalescer.getCoalescedCount(), is(2L));
+        assertThat(coalescer.getDroppedCount(), is(0L));
+    }
+
+    @Test
+    public void passOnChange() {
+        UpdateCoalescingConfig config = new UpdateCoalescingConfig();
+        config.coalesceWindow = 100;
+        config.passOnChange = true;
+        ChannelStateUpdateCoalescer coalescer = new ChannelStateUpdateCoalescer(config, consumer, executor);
+
+        coalescer.update(channelUID, new DecimalType(1));
+        verify(consumer).accept(channelUID, new DecimalType(1));
+
+        // An unchanged value is delayed, but superseded by the next changed value
+        coalescer.update(channelUID, new DecimalType(1));
+        verifyNoMoreInteractions(consumer);
+        coalescer.update(channelUID, new DecimalType(2));
+        verify(consumer).accept(channelUID, new DecimalType(2));
+
+        scheduledRunnable().run();
+        verifyNoMoreInteractions(consumer);
+        assertThat(coalescer.getDroppedCount(), is(1L));
+    }
+
+    @Test
+    public void clearDropsPending() {
+        UpdateCoalescingConfig config = new UpdateCoalescingConfig();
+        config.maxUpdateRate = 10;
+        config.passOnChange = false;
+        ChannelStateUpdateCoalescer coalescer = new ChannelStateUpdateCoalescer(config, consumer, executor);
+
+        coalescer.update(channelUID, new DecimalType(1));
+        Runnable runnable = scheduledRunnable();
+        coalescer.clear();
+        runnable.run();
+
+        verify(consumer, never()).accept(any(), any());
+        assertThat(coalescer.getDroppedCount(), is(1L));
+    }
+
+    @Test
+    public void valueNotDueYetIsRetried() throws InterruptedException {
+        UpdateCoalescingConfig config = new UpdateCoalescingConfig();
+        config.maxUpdateRate = 10;
+        ChannelStateUpdateCoalescer coalescer = new ChannelStateUpdateCoalescer(config, consumer, executor);
+
+        coalescer.update(channelUID, new DecimalType(1));
+        scheduledRunnable().run();
+        verify(consumer).accept(channelUID, new DecimalType(1));
+
+        // The batch timer is done now, the next value arms it again
+        when(future.isDone()).thenReturn(true);
+        coalescer.update(channelUID, new DecimalType(2));
+        ArgumentCaptor<Runnable> runnables = ArgumentCaptor.forClass(Runnable.class);
+        ArgumentCaptor<Long> delays = ArgumentCaptor.forClass(Long.class);
+        verify(executor, times(2)).schedule(runnables.capture(), delays.capture(), eq(TimeUnit.MILLISECONDS));
+
+        // The batch runs before the channel is due, a retry is scheduled for when the channel is due
+        runnables.getAllValues().get(1).run();
+        verifyNoMoreInteractions(consumer);
+        verify(executor, times(3)).schedule(runnables.capture(), delays.capture(), eq(TimeUnit.MILLISECONDS));
+        long retryDelay = delays.getValue();
+        assertThat(retryDelay > 0 && retryDelay <= 100, is(true));
+
+        Thread.sleep(retryDelay);
+        runnables.getValue().run();
+        verify(consumer).accept(channelUID, new DecimalType(2));
+        assertThat(coalescer.getDroppedCount(), is(0L));
+    }
+}
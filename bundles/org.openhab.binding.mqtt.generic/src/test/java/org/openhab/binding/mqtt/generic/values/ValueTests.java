@@ -16,6 +16,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.HSBType;
@@ -254,4 +255,31 @@ public class ValueTests {
                 null);
         v.update(new DecimalType(9.0));
     }
+
+    @Test
+    public void parseNumberPayload() {
+        NumberValue v = new NumberValue(null, null, null);
+        for (String payload : new String[] { "0", "-0", "42", "+42", "-1234567890123456789", "12.50", "-1.5e3",
+                "1E-3" }) {
+            assertThat(payload, v.parseCommand(payload.getBytes(StandardCharsets.UTF_8)), is(p(v, payload)));
+        }
+        assertNull(v.parseCommand("".getBytes(StandardCharsets.UTF_8)));
+        assertNull(v.parseCommand("-".getBytes(StandardCharsets.UTF_8)));
+        assertNull(v.parseCommand("1.2.3".getBytes(StandardCharsets.UTF_8)));
+        assertNull(v.parseCommand("UP".getBytes(StandardCharsets.UTF_8)));
+
+        PercentageValue pv = new PercentageValue(null, null, null, null, null);
+        assertThat(pv.parseCommand("55.5".getBytes(StandardCharsets.UTF_8)), is(p(pv, "55.5")));
+        assertNull(pv.parseCommand("ON".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void parseOnOffPayload() {
+        OnOffValue v = new OnOffValue("fancyON", "fancyOFF");
+        assertThat(v.parseCommand("fancyON".getBytes(StandardCharsets.UTF_8)), is(OnOffType.ON));
+        assertThat(v.parseCommand("fancyOFF".getBytes(StandardCharsets.UTF_8)), is(OnOffType.OFF));
+        assertThat(v.parseCommand("ON".getBytes(StandardCharsets.UTF_8)), is(OnOffType.ON));
+        assertNull(v.parseCommand("on".getBytes(StandardCharsets.UTF_8)));
+    }
+
 }
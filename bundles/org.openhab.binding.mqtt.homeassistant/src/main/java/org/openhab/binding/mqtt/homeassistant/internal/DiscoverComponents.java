@@ -28,6 +28,7 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
+import org.openhab.binding.mqtt.handler.MqttTopicDispatcher;
 import org.openhab.binding.mqtt.homeassistant.internal.util.FutureCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +63,18 @@ public class DiscoverComponents implements MqttMessageSubscriber {
      */
     public static interface ComponentDiscovered {
         void componentDiscovered(HaID homeAssistantTopicID, AbstractComponent<?> component);
+
+        /**
+         * Called for each received configuration before it is parsed. Return true if the configuration
+         * belongs to an already known component and did not change. The configuration is neither parsed
+         * nor reported via {@link #componentDiscovered(HaID, AbstractComponent)} then.
+         *
+         * @param homeAssistantTopicID The topic ID of the configuration
+         * @param config The received configuration JSON
+         */
+        default boolean componentConfigUnchanged(HaID homeAssistantTopicID, String config) {
+            return false;
+        }
     }
 
     /**
@@ -90,6 +103,12 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         HaID haID = new HaID(topic);
         String config = new String(payload);
 
+        final ComponentDiscovered listener = discoveredListener;
+        if (listener != null && config.length() > 0 && listener.componentConfigUnchanged(haID, config)) {
+            logger.trace("Unchanged HomeAssistant thing {} component {}", haID.objectID, haID.component);
+            return;
+        }
+
         AbstractComponent<?> component = null;
 
         if (config.length() > 0) {
@@ -135,7 +154,8 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         this.connectionRef = new WeakReference<>(connection);
 
         // Subscribe to the wildcard topic and start receive MQTT retained topics
-        this.topics.parallelStream().map(t -> connection.subscribe(t, this)).collect(FutureCollector.allOf())
+        this.topics.parallelStream().map(t -> MqttTopicDispatcher.subscribe(connection, t, this))
+                .collect(FutureCollector.allOf())
                 .thenRun(this::subscribeSuccess).exceptionally(this::subscribeFail);
 
         return discoverFinishedFuture;
@@ -147,7 +167,7 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         if (connection != null && discoverTime > 0) {
             this.stopDiscoveryFuture = scheduler.schedule(() -> {
                 this.stopDiscoveryFuture = null;
-                this.topics.parallelStream().forEach(t -> connection.unsubscribe(t, this));
+                this.topics.parallelStream().forEach(t -> MqttTopicDispatcher.unsubscribe(connection, t, this));
                 this.discoveredListener = null;
                 discoverFinishedFuture.complete(null);
             }, discoverTime, TimeUnit.MILLISECONDS);
@@ -166,7 +186,7 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         this.discoveredListener = null;
         final MqttBrokerConnection connection = connectionRef.get();
         if (connection != null) {
-            this.topics.parallelStream().forEach(t -> connection.unsubscribe(t, this));
+            this.topics.parallelStream().forEach(t -> MqttTopicDispatcher.unsubscribe(connection, t, this));
             connectionRef.clear();
         }
         discoverFinishedFuture.completeExceptionally(e);
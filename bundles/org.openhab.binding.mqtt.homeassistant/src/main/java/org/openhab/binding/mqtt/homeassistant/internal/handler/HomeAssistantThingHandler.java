@@ -71,6 +71,12 @@ import com.google.gson.GsonBuilder;
  * <br>
  *
  * If a Components configuration changes, the known ChannelGroupType and ChannelTypes are replaced with the new ones.
+ * <br>
+ * <br>
+ *
+ * The last known configuration of each Component is persisted with its channels. Components are restored from it
+ * on startup and considered valid right away. Retained configurations received from the broker are only processed
+ * if they differ from the restored ones.
  *
  * @author David Graeff - Initial contribution
  */
@@ -95,6 +101,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
     protected final TransformationServiceProvider transformationServiceProvider;
 
     private boolean started;
+    private long startTime;
 
     /**
      * Create a new thing handler for HomeAssistant MQTT components.
@@ -157,6 +164,8 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
             }
 
             if (component != null) {
+                // Trust the persisted configuration. The broker's retained configuration is reconciled later on.
+                component.setConfigSeen();
                 haComponents.put(component.uid().getId(), component);
                 component.addChannelTypes(channelTypeProvider);
             } else {
@@ -187,6 +196,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
     @Override
     protected CompletableFuture<@Nullable Void> start(MqttBrokerConnection connection) {
         started = true;
+        startTime = System.currentTimeMillis();
 
         connection.setRetain(true);
         connection.setQos(1);
@@ -194,11 +204,16 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.GONE, "No response from the device yet");
 
         // Start all known components and channels within the components and put the Thing offline
-        // if any subscribing failed ( == broker connection lost)
+        // if any subscribing failed ( == broker connection lost). The restored components do not wait
+        // for their retained values, those are received in the background.
         CompletableFuture<@Nullable Void> future = haComponents.values().parallelStream()
-                .map(e -> e.start(connection, scheduler, attributeReceiveTimeout))
+                .map(e -> e.start(connection, scheduler, 0))
                 .reduce(CompletableFuture.completedFuture(null), (a, v) -> a.thenCompose(b -> v)) // reduce to one
-                .exceptionally(e -> {
+                .thenRun(() -> {
+                    if (!haComponents.isEmpty()) {
+                        updateThingStatus();
+                    }
+                }).exceptionally(e -> {
                     updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, e.getMessage());
                     return null;
                 });
@@ -250,6 +265,29 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         delayedProcessing.accept(component);
     }
 
+    /**
+     * Callback of {@link DiscoverComponents}. A known component with an unchanged configuration
+     * is marked as seen and does not need to be processed again.
+     */
+    @Override
+    public boolean componentConfigUnchanged(HaID homeAssistantTopicID, String config) {
+        final int configHash = config.hashCode();
+        boolean unchanged = false;
+        synchronized (haComponents) { // sync whenever discoverComponents is started
+            for (AbstractComponent<?> known : haComponents.values()) {
+                if (known.getConfigHash() == configHash && known.getHaID().equals(homeAssistantTopicID)) {
+                    known.setConfigSeen();
+                    unchanged = true;
+                    break;
+                }
+            }
+        }
+        if (unchanged) {
+            updateThingStatus();
+        }
+        return unchanged;
+    }
+
     /**
      * Callback of {@link DelayedBatchProcessing}.
      * Add all newly discovered components to the Thing and start the components.
@@ -301,6 +339,11 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         synchronized (haComponents) { // sync whenever discoverComponents is started
             boolean allActive = haComponents.values().stream().allMatch(comp -> comp.isActive());
             if (allActive) {
+                if (startTime > 0) {
+                    logger.debug("HomeAssistant thing {} online after {} ms", thing.getUID(),
+                            System.currentTimeMillis() - startTime);
+                    startTime = 0;
+                }
                 updateStatus(ThingStatus.ONLINE);
             } else {
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.GONE, "At least one component not active");
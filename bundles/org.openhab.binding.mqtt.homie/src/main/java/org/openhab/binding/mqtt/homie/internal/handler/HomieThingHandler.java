@@ -125,7 +125,8 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
         return device.subscribe(connection, scheduler, attributeReceiveTimeout).thenCompose((Void v) -> {
             return device.startChannels(connection, scheduler, attributeReceiveTimeout, this);
         }).thenRun(() -> {
-            logger.debug("Homie device {} fully attached", device.attributes.name);
+            logger.debug("Homie device {} fully attached, device tree received in {} ms", device.attributes.name,
+                    device.getStartupTime());
         });
     }
 
@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.homie.internal.homie300;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
@@ -64,6 +65,9 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
     private String topic = "";
     public String deviceID = "";
     private boolean initialized = false;
+    // Retained attribute values of the whole device tree, only available while subscribing
+    private @Nullable Map<String, byte[]> retainedValues;
+    private long startupTime = -1;
 
     /**
      * Creates a Homie Device structure. It consists of device attributes, device statistics and nodes.
@@ -99,6 +103,9 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      * and subscribe to all node attributes. Parse node properties. This will not subscribe
      * to properties though. If subscribing to all necessary topics worked {@link #isInitialized()} will return true.
      *
+     * The retained attributes of the entire device tree are fetched with a single wildcard subscription first
+     * (see {@link DeviceTopicSnapshot}), so that attribute classes do not need to wait for each topic.
+     *
      * Call {@link #startChannels(MqttBrokerConnection)} subsequently.
      *
      * @param connection A broker connection
@@ -113,15 +120,32 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
             throw new IllegalStateException("You must call initialize()!");
         }
 
-        return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+        final long start = System.currentTimeMillis();
+        return new DeviceTopicSnapshot(topic).collect(connection, scheduler, timeout).thenCompose(values -> {
+            retainedValues = values;
+            return values == null ? attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+                    : attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout, values);
+        })
                 // On success, create all nodes and tell the handler about the ready state
                 .thenCompose(b -> attributesReceived(connection, scheduler, timeout))
                 // No matter if values have been received or not -> the subscriptions have been performed
                 .whenComplete((r, e) -> {
+                    startupTime = System.currentTimeMillis() - start;
+                    logger.debug("Homie device {} subscribed in {} ms ({})", deviceID, startupTime,
+                            retainedValues != null ? "bulk" : "one by one");
+                    retainedValues = null;
                     initialized = true;
                 });
     }
 
+    /**
+     * Return the time in milliseconds it took to receive the device tree on the last {@link #subscribe}, or -1
+     * if the device was not subscribed yet.
+     */
+    public long getStartupTime() {
+        return startupTime;
+    }
+
     public CompletableFuture<@Nullable Void> attributesReceived(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, int timeout) {
         callback.readyStateChanged(attributes.state);
@@ -275,7 +299,9 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
 
     CompletableFuture<@Nullable Void> applyNodes(MqttBrokerConnection connection, ScheduledExecutorService scheduler,
             int timeout) {
-        return nodes.apply(attributes.nodes, node -> node.subscribe(connection, scheduler, timeout), this::createNode,
+        final @Nullable Map<String, byte[]> retainedValues = this.retainedValues;
+        return nodes.apply(attributes.nodes, node -> node.subscribe(connection, scheduler, timeout, retainedValues),
+                this::createNode,
                 this::notifyNodeRemoved).exceptionally(e -> {
                     logger.warn("Could not subscribe", e);
                     return null;
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homie.internal.homie300;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.handler.MqttTopicDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the retained attribute topics ("$..." topics) of a Homie device with a single wildcard
+ * subscription on "homie/device-id/#".
+ *
+ * <p>
+ * The snapshot is complete as soon as all mandatory device attributes, the mandatory attributes of all
+ * nodes listed in "$nodes" and the mandatory attributes of all properties listed in "$properties" were received.
+ * The attribute classes of the device tree can then be filled from the snapshot without waiting for
+ * every single attribute topic.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class DeviceTopicSnapshot implements MqttMessageSubscriber {
+    private final Logger logger = LoggerFactory.getLogger(DeviceTopicSnapshot.class);
+    private static final String[] MANDATORY_DEVICE_ATTRIBUTES = { "$homie", "$name", "$state", "$nodes" };
+    private static final String[] MANDATORY_NODE_ATTRIBUTES = { "$name", "$properties" };
+    private static final String[] MANDATORY_PROPERTY_ATTRIBUTES = { "$name", "$datatype" };
+
+    private final String topic;
+    private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+    private final CompletableFuture<@Nullable Map<String, byte[]>> future = new CompletableFuture<>();
+    private @Nullable ScheduledFuture<?> timeoutFuture;
+
+    /**
+     * Creates a {@link DeviceTopicSnapshot}.
+     *
+     * @param topic The device topic, e.g. "homie/device-id"
+     */
+    public DeviceTopicSnapshot(String topic) {
+        this.topic = topic;
+    }
+
+    /**
+     * Subscribe to all topics of the device and collect the attribute topics.
+     *
+     * @param connection A broker connection
+     * @param scheduler A scheduler to realize the timeout
+     * @param timeout A timeout in milliseconds
+     * @return A future that completes with a map of attribute topics to payloads as soon as the snapshot is complete.
+     *         It completes with null if the snapshot could not be completed within the timeout.
+     */
+    public CompletableFuture<@Nullable Map<String, byte[]>> collect(MqttBrokerConnection connection,
+            ScheduledExecutorService scheduler, int timeout) {
+        future.whenComplete((v, e) -> MqttTopicDispatcher.unsubscribe(connection, topic + "/#", this));
+        timeoutFuture = scheduler.schedule(() -> {
+            if (future.complete(null)) {
+                logger.debug("Attributes of Homie device {} incomplete after {} ms, requesting them one by one",
+                        topic, timeout);
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+        MqttTopicDispatcher.subscribe(connection, topic + "/#", this).exceptionally(e -> {
+            logger.debug("Failed to subscribe to {}/#", topic, e);
+            future.complete(null);
+            return false;
+        });
+        return future;
+    }
+
+    @Override
+    public void processMessage(String topic, byte[] payload) {
+        if (future.isDone() || payload.length == 0 || topic.lastIndexOf("/$") < topic.lastIndexOf('/')) {
+            return;
+        }
+        values.put(topic, payload);
+        if (isComplete()) {
+            final ScheduledFuture<?> timeoutFuture = this.timeoutFuture;
+            if (timeoutFuture != null) {
+                timeoutFuture.cancel(false);
+            }
+            future.complete(values);
+        }
+    }
+
+    /**
+     * Return true if all mandatory attributes of the device tree were received.
+     */
+    boolean isComplete() {
+        if (!containsAll(topic, MANDATORY_DEVICE_ATTRIBUTES)) {
+            return false;
+        }
+        for (String nodeID : list(topic + "/$nodes")) {
+            final String nodeTopic = topic + "/" + nodeID;
+            if (!containsAll(nodeTopic, MANDATORY_NODE_ATTRIBUTES)) {
+                return false;
+            }
+            for (String propertyID : list(nodeTopic + "/$properties")) {
+                if (!containsAll(nodeTopic + "/" + propertyID, MANDATORY_PROPERTY_ATTRIBUTES)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean containsAll(String baseTopic, String[] attributes) {
+        for (String attribute : attributes) {
+            if (!values.containsKey(baseTopic + "/" + attribute)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String[] list(String attributeTopic) {
+        byte[] payload = values.get(attributeTopic);
+        if (payload == null) {
+            return new String[0];
+        }
+        return new String(payload, StandardCharsets.UTF_8).split(",");
+    }
+}
@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.homie.internal.homie300;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
@@ -58,6 +59,8 @@ public class Node implements AbstractMqttAttributeClass.AttributeChanged {
     public final ChannelGroupTypeUID channelGroupTypeUID;
     private final String topic;
     private boolean initialized = false;
+    // Retained attribute values of the whole device tree, only available while subscribing
+    private @Nullable Map<String, byte[]> retainedValues;
 
     /**
      * Creates a Homie Node.
@@ -84,11 +87,24 @@ public class Node implements AbstractMqttAttributeClass.AttributeChanged {
      */
     public CompletableFuture<@Nullable Void> subscribe(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, int timeout) {
-        return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+        return subscribe(connection, scheduler, timeout, null);
+    }
+
+    /**
+     * Parse node properties, with the retained attribute values of the device tree already known.
+     *
+     * @param retainedValues A map of full topics to retained values. Null to wait for the values of each topic.
+     */
+    public CompletableFuture<@Nullable Void> subscribe(MqttBrokerConnection connection,
+            ScheduledExecutorService scheduler, int timeout, @Nullable Map<String, byte[]> retainedValues) {
+        this.retainedValues = retainedValues;
+        return (retainedValues == null ? attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+                : attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout, retainedValues))
                 // On success, create all properties and tell the handler about this node
                 .thenCompose(b -> attributesReceived(connection, scheduler, timeout))
                 // No matter if values have been received or not -> the subscriptions have been performed
                 .whenComplete((r, e) -> {
+                    this.retainedValues = null;
                     initialized = true;
                 });
     }
@@ -174,7 +190,9 @@ public class Node implements AbstractMqttAttributeClass.AttributeChanged {
 
     protected CompletableFuture<@Nullable Void> applyProperties(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, int timeout) {
-        return properties.apply(attributes.properties, prop -> prop.subscribe(connection, scheduler, timeout),
+        final @Nullable Map<String, byte[]> retainedValues = this.retainedValues;
+        return properties.apply(attributes.properties,
+                prop -> prop.subscribe(connection, scheduler, timeout, retainedValues),
                 this::createProperty, this::notifyPropertyRemoved).exceptionally(e -> {
                     logger.warn("Could not subscribe", e);
                     return null;
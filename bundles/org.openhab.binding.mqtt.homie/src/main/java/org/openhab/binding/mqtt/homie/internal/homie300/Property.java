@@ -16,6 +16,7 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
@@ -99,7 +100,18 @@ public class Property implements AttributeChanged {
      */
     public CompletableFuture<@Nullable Void> subscribe(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, int timeout) {
-        return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+        return subscribe(connection, scheduler, timeout, null);
+    }
+
+    /**
+     * Subscribe to property attributes, with the retained attribute values of the device tree already known.
+     *
+     * @param retainedValues A map of full topics to retained values. Null to wait for the values of each topic.
+     */
+    public CompletableFuture<@Nullable Void> subscribe(MqttBrokerConnection connection,
+            ScheduledExecutorService scheduler, int timeout, @Nullable Map<String, byte[]> retainedValues) {
+        return (retainedValues == null ? attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+                : attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout, retainedValues))
                 // On success, create the channel and tell the handler about this property
                 .thenRun(this::attributesReceived)
                 // No matter if values have been received or not -> the subscriptions have been performed
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homie.internal.homie300;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Tests cases for {@link DeviceTopicSnapshot}.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceTopicSnapshotTests {
+    @Mock
+    private MqttBrokerConnection connection;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ScheduledFuture<?> scheduledFuture;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+        doReturn(scheduledFuture).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    private void publish(DeviceTopicSnapshot snapshot, String topic, String value) {
+        snapshot.processMessage(topic, value.getBytes());
+    }
+
+    @Test
+    public void completeWithMandatoryAttributes() throws Exception {
+        DeviceTopicSnapshot snapshot = new DeviceTopicSnapshot("homie/device");
+        CompletableFuture<Map<String, byte[]>> future = snapshot.collect(connection, scheduler, 500);
+        verify(connection).subscribe(eq("homie/device/#"), eq(snapshot));
+
+        publish(snapshot, "homie/device/$homie", "3.0");
+        publish(snapshot, "homie/device/$name", "Device");
+        publish(snapshot, "homie/device/$state", "ready");
+        publish(snapshot, "homie/device/$nodes", "node");
+        publish(snapshot, "homie/device/node/$name", "Node");
+        // Property values are not collected
+        publish(snapshot, "homie/device/node/property", "12");
+        publish(snapshot, "homie/device/node/$properties", "property");
+        assertThat(future.isDone(), is(false));
+
+        publish(snapshot, "homie/device/node/property/$datatype", "integer");
+        assertThat(future.isDone(), is(false));
+        publish(snapshot, "homie/device/node/property/$name", "Property");
+        assertThat(future.isDone(), is(true));
+        Map<String, byte[]> values = future.get();
+        assertThat(values.size(), is(8));
+        assertThat(values.containsKey("homie/device/node/property"), is(false));
+        verify(scheduledFuture).cancel(false);
+        verify(connection).unsubscribe(eq("homie/device/#"), eq(snapshot));
+    }
+
+    @Test
+    public void completeWithMandatoryPropertyAttributesOnly() throws Exception {
+        DeviceTopicSnapshot snapshot = new DeviceTopicSnapshot("homie/device");
+        CompletableFuture<Map<String, byte[]>> future = snapshot.collect(connection, scheduler, 500);
+
+        publish(snapshot, "homie/device/$homie", "3.0");
+        publish(snapshot, "homie/device/$name", "Device");
+        publish(snapshot, "homie/device/$state", "ready");
+        publish(snapshot, "homie/device/$nodes", "node");
+        publish(snapshot, "homie/device/node/$name", "Node");
+        publish(snapshot, "homie/device/node/$properties", "property");
+
+        // $name arrives before $datatype: The property is incomplete, although one of its attributes is known
+        publish(snapshot, "homie/device/node/property/$name", "Property");
+        publish(snapshot, "homie/device/node/property/$unit", "°C");
+        assertThat(future.isDone(), is(false));
+
+        publish(snapshot, "homie/device/node/property/$datatype", "float");
+        assertThat(future.isDone(), is(true));
+        assertThat(new String(future.get().get("homie/device/node/property/$datatype")), is("float"));
+    }
+
+    @Test
+    public void timeout() throws Exception {
+        DeviceTopicSnapshot snapshot = new DeviceTopicSnapshot("homie/device");
+        CompletableFuture<Map<String, byte[]>> future = snapshot.collect(connection, scheduler, 500);
+        publish(snapshot, "homie/device/$homie", "3.0");
+
+        ArgumentCaptor<Runnable> timeout = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(timeout.capture(), eq(500L), eq(TimeUnit.MILLISECONDS));
+        timeout.getValue().run();
+
+        assertThat(future.get(), is(nullValue()));
+        verify(connection).unsubscribe(eq("homie/device/#"), eq(snapshot));
+    }
+}
@@ -52,6 +52,7 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
 
     protected @Nullable MqttBrokerConnection connection;
     protected CompletableFuture<MqttBrokerConnection> connectionFuture = new CompletableFuture<>();
+    protected final MqttTopicDispatcher topicDispatcher = new MqttTopicDispatcher();
 
     public AbstractBrokerHandler(Bridge thing) {
         super(thing);
@@ -77,6 +78,14 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
         return connection;
     }
 
+    /**
+     * Returns the {@link MqttTopicDispatcher} of this broker. Subscribing via the dispatcher shares
+     * broker subscriptions of the same topic filter and keeps them across reconnects.
+     */
+    public MqttTopicDispatcher getTopicDispatcher() {
+        return topicDispatcher;
+    }
+
     /**
      * Does nothing in the base implementation.
      */
@@ -114,24 +123,22 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
                 connectionStateChanged(MqttConnectionState.CONNECTED, null);
             }
         });
-        connectionFuture.complete(connection);
 
+        // Replace the discovery subscribers of the previous connection, before all topics are subscribed at once
         discoveryTopics.forEach((topic, listenerMap) -> {
             listenerMap.replaceAll((listener, oldTopicSubscribe) -> {
-                TopicSubscribe topicSubscribe = new TopicSubscribe(connection, topic, listener, thing.getUID());
-                topicSubscribe.start().handle((result, ex) -> {
-                    if (ex != null) {
-                        logger.warn("Failed to subscribe {} to discovery topic {} on broker {}", listener, topic,
-                                thing.getUID());
-                    } else {
-                        logger.trace("Subscribed {} to discovery topic {} on broker {}", listener, topic,
-                                thing.getUID());
-                    }
-                    return null;
-                });
-                return topicSubscribe;
+                if (oldTopicSubscribe != null) {
+                    topicDispatcher.unsubscribe(topic, oldTopicSubscribe);
+                }
+                return subscribeDiscoveryTopic(topic, listener);
             });
         });
+        topicDispatcher.start(connection).exceptionally(e -> {
+            logger.warn("Failed to subscribe to topics on broker {}: {}", thing.getUID(), e.getMessage());
+            return false;
+        });
+        // Completed after starting the dispatcher, subscribers of the future subscribe via the dispatcher
+        connectionFuture.complete(connection);
     }
 
     @Override
@@ -163,11 +170,7 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
         channelStateByChannelUID.clear();
 
         // keep topics, but stop subscriptions
-        discoveryTopics.forEach((topic, listenerMap) -> {
-            listenerMap.forEach((listener, topicSubscribe) -> {
-                topicSubscribe.stop();
-            });
-        });
+        topicDispatcher.stop();
 
         if (connection != null) {
             connection.removeConnectionObserver(this);
@@ -193,21 +196,24 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
             if (v != null) {
                 logger.warn("Duplicate subscription for {} to discovery topic {} on broker {}. Check discovery logic!",
                         listener, topic, thing.getUID());
-                v.stop();
+                topicDispatcher.unsubscribe(topic, v);
             }
+            return subscribeDiscoveryTopic(topic, listener);
+        });
+    }
 
-            TopicSubscribe topicSubscribe = new TopicSubscribe(connection, topic, listener, thing.getUID());
-            topicSubscribe.start().handle((result, ex) -> {
-                if (ex != null) {
-                    logger.warn("Failed to subscribe {} to discovery topic {} on broker {}", listener, topic,
-                            thing.getUID());
-                } else {
-                    logger.trace("Subscribed {} to discovery topic {} on broker {}", listener, topic, thing.getUID());
-                }
-                return null;
-            });
-            return topicSubscribe;
+    private TopicSubscribe subscribeDiscoveryTopic(String topic, MQTTTopicDiscoveryParticipant listener) {
+        TopicSubscribe topicSubscribe = new TopicSubscribe(connection, topic, listener, thing.getUID());
+        topicDispatcher.subscribe(topic, topicSubscribe).handle((result, ex) -> {
+            if (ex != null) {
+                logger.warn("Failed to subscribe {} to discovery topic {} on broker {}", listener, topic,
+                        thing.getUID());
+            } else {
+                logger.trace("Subscribed {} to discovery topic {} on broker {}", listener, topic, thing.getUID());
+            }
+            return null;
         });
+        return topicSubscribe;
     }
 
     /**
@@ -231,7 +237,7 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
                                     "Tried to unsubscribe {} from  discovery topic {} on broker {} but topic not registered for listener. Check discovery logic!",
                                     listener, topic, thing.getUID());
                         } else {
-                            w.stop();
+                            topicDispatcher.unsubscribe(topic, w);
                             logger.trace("Unsubscribed {} from discovery topic {} on broker {}", listener, topic,
                                     thing.getUID());
                         }
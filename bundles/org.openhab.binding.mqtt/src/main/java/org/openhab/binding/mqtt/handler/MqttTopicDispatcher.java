@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.handler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+
+/**
+ * Dispatches MQTT messages of one broker connection to consumers.
+ *
+ * <p>
+ * Consumers of the same topic filter share a single subscription on the {@link MqttBrokerConnection}: A
+ * {@link FilterSubscription} is the only subscriber of the connection for its topic filter and hands the
+ * received messages to its consumers. The connection therefore only has to match each message against the
+ * distinct topic filters. Overlapping filters (like "a/+" and "a/#") stay separate subscriptions, because the
+ * connection hands a message to every matching filter.
+ *
+ * <p>
+ * A broker only sends the retained messages of a topic filter when it is subscribed. The last payload of each
+ * topic is therefore kept per topic filter and handed to further consumers of the filter, instead of subscribing
+ * on the broker again. Like a retained message, an empty payload clears it.
+ *
+ * <p>
+ * Use {@link #subscribe(MqttBrokerConnection, String, MqttMessageSubscriber)} to subscribe via the dispatcher
+ * started on a connection, if there is one.
+ *
+ * <p>
+ * Consumers are kept if the connection goes away, they are subscribed again on the next
+ * {@link #start(MqttBrokerConnection)}. A stopped dispatcher stays registered for its last connection, so that
+ * consumers unsubscribing in the meantime are removed from the dispatcher.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MqttTopicDispatcher {
+    private static final Map<MqttBrokerConnection, MqttTopicDispatcher> DISPATCHERS = new ConcurrentHashMap<>();
+
+    private final Map<String, FilterSubscription> subscriptions = new HashMap<>();
+    private @Nullable MqttBrokerConnection registeredConnection;
+    private @Nullable MqttBrokerConnection connection;
+
+    /**
+     * The subscription of one topic filter on the connection.
+     */
+    private static class FilterSubscription implements MqttMessageSubscriber {
+        final String filter;
+        final Set<MqttMessageSubscriber> consumers = new CopyOnWriteArraySet<>();
+        final Map<String, byte[]> lastPayloads = new ConcurrentHashMap<>();
+        CompletableFuture<Boolean> subscribed = CompletableFuture.completedFuture(true);
+
+        FilterSubscription(String filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public void processMessage(String topic, byte[] payload) {
+            if (payload.length == 0) {
+                lastPayloads.remove(topic);
+            } else {
+                lastPayloads.put(topic, payload);
+            }
+            consumers.forEach(consumer -> consumer.processMessage(topic, payload));
+        }
+    }
+
+    /**
+     * Subscribes a consumer to the given topic filter via the dispatcher started on the given connection.
+     * Subscribes on the connection directly, if no dispatcher is started on it.
+     *
+     * @param connection A broker connection
+     * @param filter A topic filter, wildcards are supported
+     * @param consumer The consumer
+     * @return Completes with true if successful. Exceptionally otherwise.
+     */
+    public static CompletableFuture<Boolean> subscribe(MqttBrokerConnection connection, String filter,
+            MqttMessageSubscriber consumer) {
+        final MqttTopicDispatcher dispatcher = DISPATCHERS.get(connection);
+        return dispatcher != null ? dispatcher.subscribe(filter, consumer) : connection.subscribe(filter, consumer);
+    }
+
+    /**
+     * Unsubscribes a consumer from the given topic filter via the dispatcher started on the given connection.
+     * Unsubscribes on the connection directly, if no dispatcher is started on it.
+     *
+     * @param connection A broker connection
+     * @param filter The topic filter, as used for subscribing
+     * @param consumer The consumer
+     * @return Completes with true if successful. Exceptionally otherwise.
+     */
+    public static CompletableFuture<Boolean> unsubscribe(MqttBrokerConnection connection, String filter,
+            MqttMessageSubscriber consumer) {
+        final MqttTopicDispatcher dispatcher = DISPATCHERS.get(connection);
+        return dispatcher != null ? dispatcher.unsubscribe(filter, consumer)
+                : connection.unsubscribe(filter, consumer);
+    }
+
+    /**
+     * Subscribes a consumer to the given topic filter. The broker connection is only subscribed
+     * for the first consumer of a topic filter. Further consumers receive the last payloads of the
+     * topic filter instead of the retained messages.
+     *
+     * @param filter A topic filter, wildcards are supported
+     * @param consumer The consumer
+     * @return Completes with true if successful. Completes with true if there is no connection yet.
+     *         Exceptionally otherwise.
+     */
+    public CompletableFuture<Boolean> subscribe(String filter, MqttMessageSubscriber consumer) {
+        final FilterSubscription subscription;
+        synchronized (this) {
+            subscription = subscriptions.computeIfAbsent(filter, FilterSubscription::new);
+            boolean first = subscription.consumers.isEmpty();
+            if (!subscription.consumers.add(consumer) || first) {
+                final MqttBrokerConnection connection = this.connection;
+                if (first && connection != null) {
+                    subscription.subscribed = connection.subscribe(filter, subscription);
+                }
+                return subscription.subscribed;
+            }
+        }
+        // Not called with the lock held, the consumer may subscribe or unsubscribe
+        return subscription.subscribed.thenApply(v -> {
+            subscription.lastPayloads.forEach(consumer::processMessage);
+            return v;
+        });
+    }
+
+    /**
+     * Unsubscribes a consumer from the given topic filter. The broker connection is unsubscribed
+     * if this was the last consumer of the topic filter.
+     *
+     * @param filter The topic filter, as used for {@link #subscribe(String, MqttMessageSubscriber)}
+     * @param consumer The consumer
+     * @return Completes with true if successful. Exceptionally otherwise.
+     */
+    public synchronized CompletableFuture<Boolean> unsubscribe(String filter, MqttMessageSubscriber consumer) {
+        FilterSubscription subscription = subscriptions.get(filter);
+        if (subscription == null || !subscription.consumers.remove(consumer) || !subscription.consumers.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        subscriptions.remove(filter);
+        final MqttBrokerConnection connection = this.connection;
+        return connection != null ? connection.unsubscribe(filter, subscription)
+                : CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Subscribes all topic filters to the given connection.
+     *
+     * @param connection A broker connection
+     * @return Completes with true if all subscriptions were successful. Exceptionally otherwise.
+     */
+    public synchronized CompletableFuture<Boolean> start(MqttBrokerConnection connection) {
+        final MqttBrokerConnection registeredConnection = this.registeredConnection;
+        if (registeredConnection != null) {
+            DISPATCHERS.remove(registeredConnection, this);
+        }
+        this.connection = connection;
+        this.registeredConnection = connection;
+        DISPATCHERS.put(connection, this);
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (FilterSubscription subscription : subscriptions.values()) {
+            subscription.subscribed = connection.subscribe(subscription.filter, subscription);
+            futures.add(subscription.subscribed);
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenApply(v -> true);
+    }
+
+    /**
+     * Unsubscribes all topic filters from the current connection, but keeps the consumers.
+     * The last payloads are dropped, the broker sends the retained messages again on the next start.
+     */
+    public synchronized void stop() {
+        final MqttBrokerConnection connection = this.connection;
+        for (FilterSubscription subscription : subscriptions.values()) {
+            if (connection != null) {
+                connection.unsubscribe(subscription.filter, subscription);
+            }
+            subscription.lastPayloads.clear();
+        }
+        this.connection = null;
+    }
+}
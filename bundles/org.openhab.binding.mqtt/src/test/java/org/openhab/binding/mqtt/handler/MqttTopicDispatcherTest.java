@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.handler;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Tests cases for {@link MqttTopicDispatcher}.
+ *
+ * @author agent - Initial contribution
+ */
+public class MqttTopicDispatcherTest {
+    @Mock
+    private MqttBrokerConnection connection;
+
+    @Mock
+    private MqttMessageSubscriber consumer1;
+
+    @Mock
+    private MqttMessageSubscriber consumer2;
+
+    private MqttTopicDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+        dispatcher = new MqttTopicDispatcher();
+    }
+
+    @After
+    public void tearDown() {
+        dispatcher.stop();
+    }
+
+    @Test
+    public void sharedSubscription() {
+        dispatcher.start(connection);
+        dispatcher.subscribe("homie/device/+/temperature", consumer1);
+
+        ArgumentCaptor<MqttMessageSubscriber> captor = ArgumentCaptor.forClass(MqttMessageSubscriber.class);
+        verify(connection).subscribe(eq("homie/device/+/temperature"), captor.capture());
+        MqttMessageSubscriber node = captor.getValue();
+
+        byte[] payload = "12.4".getBytes();
+        node.processMessage("homie/device/node/temperature", payload);
+        verify(consumer1).processMessage("homie/device/node/temperature", payload);
+
+        // The second consumer is not subscribed on the connection, it only receives the last payload
+        dispatcher.subscribe("homie/device/+/temperature", consumer2);
+        verify(connection, times(1)).subscribe(any(), any());
+        verify(consumer2).processMessage("homie/device/node/temperature", payload);
+        verify(consumer1, times(1)).processMessage("homie/device/node/temperature", payload);
+
+        byte[] payload2 = "12.5".getBytes();
+        node.processMessage("homie/device/node/temperature", payload2);
+        verify(consumer1).processMessage("homie/device/node/temperature", payload2);
+        verify(consumer2).processMessage("homie/device/node/temperature", payload2);
+
+        dispatcher.unsubscribe("homie/device/+/temperature", consumer1);
+        verify(connection, never()).unsubscribe("homie/device/+/temperature", node);
+        dispatcher.unsubscribe("homie/device/+/temperature", consumer2);
+        verify(connection).unsubscribe("homie/device/+/temperature", node);
+    }
+
+    @Test
+    public void overlappingFilters() {
+        dispatcher.start(connection);
+        dispatcher.subscribe("a/+/c", consumer1);
+        dispatcher.subscribe("a/#", consumer2);
+
+        ArgumentCaptor<MqttMessageSubscriber> captor1 = ArgumentCaptor.forClass(MqttMessageSubscriber.class);
+        verify(connection).subscribe(eq("a/+/c"), captor1.capture());
+        ArgumentCaptor<MqttMessageSubscriber> captor2 = ArgumentCaptor.forClass(MqttMessageSubscriber.class);
+        verify(connection).subscribe(eq("a/#"), captor2.capture());
+
+        // The connection hands the message to both filters, every consumer receives it once
+        byte[] payload = "1".getBytes();
+        captor1.getValue().processMessage("a/b/c", payload);
+        captor2.getValue().processMessage("a/b/c", payload);
+        verify(consumer1, times(1)).processMessage("a/b/c", payload);
+        verify(consumer2, times(1)).processMessage("a/b/c", payload);
+    }
+
+    @Test
+    public void subscribeOnStart() {
+        dispatcher.subscribe("a/b", consumer1);
+        verify(connection, never()).subscribe(any(), any());
+
+        dispatcher.start(connection);
+        ArgumentCaptor<MqttMessageSubscriber> captor = ArgumentCaptor.forClass(MqttMessageSubscriber.class);
+        verify(connection).subscribe(eq("a/b"), captor.capture());
+
+        dispatcher.stop();
+        verify(connection).unsubscribe("a/b", captor.getValue());
+
+        // Consumers are kept for the next connection
+        MqttBrokerConnection nextConnection = mock(MqttBrokerConnection.class);
+        doReturn(CompletableFuture.completedFuture(true)).when(nextConnection).subscribe(any(), any());
+        dispatcher.start(nextConnection);
+        verify(nextConnection).subscribe("a/b", captor.getValue());
+    }
+
+    @Test
+    public void subscribeViaConnection() {
+        // Without a started dispatcher, the connection is used directly
+        MqttTopicDispatcher.subscribe(connection, "a/b", consumer1);
+        verify(connection).subscribe("a/b", consumer1);
+        MqttTopicDispatcher.unsubscribe(connection, "a/b", consumer1);
+        verify(connection).unsubscribe("a/b", consumer1);
+
+        dispatcher.start(connection);
+        MqttTopicDispatcher.subscribe(connection, "a/c", consumer1);
+        MqttTopicDispatcher.subscribe(connection, "a/c", consumer2);
+        verify(connection, never()).subscribe("a/c", consumer1);
+        verify(connection, never()).subscribe("a/c", consumer2);
+
+        ArgumentCaptor<MqttMessageSubscriber> captor = ArgumentCaptor.forClass(MqttMessageSubscriber.class);
+        verify(connection).subscribe(eq("a/c"), captor.capture());
+        MqttTopicDispatcher.unsubscribe(connection, "a/c", consumer1);
+        MqttTopicDispatcher.unsubscribe(connection, "a/c", consumer2);
+        verify(connection).unsubscribe("a/c", captor.getValue());
+
+        // A stopped dispatcher keeps its consumers, unsubscribing must not fall back to the connection
+        MqttTopicDispatcher.subscribe(connection, "a/d", consumer1);
+        dispatcher.stop();
+        MqttTopicDispatcher.unsubscribe(connection, "a/d", consumer1);
+        verify(connection, never()).unsubscribe("a/d", consumer1);
+
+        // The consumer is not subscribed again on the next start
+        MqttBrokerConnection nextConnection = mock(MqttBrokerConnection.class);
+        doReturn(CompletableFuture.completedFuture(true)).when(nextConnection).subscribe(any(), any());
+        dispatcher.start(nextConnection);
+        verify(nextConnection, never()).subscribe(eq("a/d"), any());
+
+        // Only the last connection is registered
+        MqttTopicDispatcher.subscribe(connection, "a/e", consumer1);
+        verify(connection).subscribe("a/e", consumer1);
+    }
+}
@@ -12,8 +12,15 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
@@ -29,6 +36,10 @@ import io.github.hapjava.HomekitCharacteristicChangeCallback;
  * clients. Each item/key pair (key is optional) should be unique, as the underlying
  * Homekit library takes care of insuring only a single subscription exists for
  * each accessory.
+ * <p>
+ * If a notification delay is set, item changes are coalesced: All changes within the delay are notified to
+ * Homekit at once and only the latest state of each characteristic is notified. A characteristic is not
+ * notified at all, if its state went back to the already notified state within the delay.
  *
  * @author Andy Lintner - Initial contribution
  */
@@ -36,6 +47,40 @@ public class HomekitAccessoryUpdater {
     private Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
     private final ConcurrentMap<ItemKey, Subscription> subscriptionsByName = new ConcurrentHashMap<>();
 
+    private final ScheduledExecutorService scheduler;
+    private volatile int notificationDelay;
+    private final Set<Subscription> pendingNotifications = new LinkedHashSet<>();
+    private final AtomicLong notifications = new AtomicLong();
+    private final AtomicLong coalescedChanges = new AtomicLong();
+    private final AtomicLong suppressedNotifications = new AtomicLong();
+
+    /**
+     * Creates an updater that notifies item changes immediately.
+     */
+    public HomekitAccessoryUpdater() {
+        this(null, 0);
+    }
+
+    /**
+     * Creates an updater that coalesces item changes.
+     *
+     * @param scheduler A scheduler for the delayed notifications. May only be null if no delay is used.
+     * @param notificationDelay The delay in milliseconds. 0 notifies immediately.
+     */
+    public HomekitAccessoryUpdater(ScheduledExecutorService scheduler, int notificationDelay) {
+        this.scheduler = scheduler;
+        this.notificationDelay = scheduler == null ? 0 : notificationDelay;
+    }
+
+    /**
+     * Changes the notification delay. Already pending notifications are not affected.
+     *
+     * @param notificationDelay The delay in milliseconds. 0 notifies immediately.
+     */
+    public void setNotificationDelay(int notificationDelay) {
+        this.notificationDelay = scheduler == null ? 0 : notificationDelay;
+    }
+
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
     }
@@ -56,7 +101,7 @@ public class HomekitAccessoryUpdater {
                 unsubscribe(item, key);
             }
             logger.debug("Adding subscription for {} / {}", item, key);
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
+            Subscription subscription = new Subscription(itemKey, callback, item.getState());
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -77,18 +122,161 @@ public class HomekitAccessoryUpdater {
         });
     }
 
-    @FunctionalInterface
-    private static interface Subscription extends StateChangeListener {
+    /**
+     * Returns the number of notifications sent to Homekit.
+     */
+    public long getNotifications() {
+        return notifications.get();
+    }
+
+    /**
+     * Returns the number of item changes that were merged into an already pending notification.
+     */
+    public long getCoalescedChanges() {
+        return coalescedChanges.get();
+    }
+
+    /**
+     * Returns the number of pending notifications that were dropped, because the state went back to the
+     * already notified one.
+     */
+    public long getSuppressedNotifications() {
+        return suppressedNotifications.get();
+    }
+
+    /**
+     * Returns a line per subscription with the number of notifications and the notification latency,
+     * sorted by the maximum latency.
+     */
+    public List<String> getLatencyStatistics() {
+        List<LatencyStatistics> statistics = new ArrayList<>(subscriptionsByName.size());
+        for (Subscription subscription : subscriptionsByName.values()) {
+            statistics.add(subscription.getLatencyStatistics());
+        }
+        statistics.sort((a, b) -> Long.compare(b.maxLatency, a.maxLatency));
+        List<String> result = new ArrayList<>(statistics.size());
+        for (LatencyStatistics entry : statistics) {
+            result.add(String.format("%s: %d notifications, average latency %d ms, max latency %d ms",
+                    entry.itemKey, entry.notifications,
+                    entry.notifications > 0 ? entry.totalLatency / entry.notifications : 0, entry.maxLatency));
+        }
+        return result;
+    }
+
+    private void changed(Subscription subscription, State newState) {
+        final int delay = notificationDelay;
+        if (delay <= 0) {
+            subscription.notifyChange(newState, System.currentTimeMillis());
+            notifications.incrementAndGet();
+            return;
+        }
+        boolean schedule;
+        synchronized (pendingNotifications) {
+            if (!pendingNotifications.add(subscription)) {
+                coalescedChanges.incrementAndGet();
+                subscription.pendingState = newState;
+                return;
+            }
+            subscription.pendingState = newState;
+            subscription.firstChange = System.currentTimeMillis();
+            schedule = pendingNotifications.size() == 1;
+        }
+        if (schedule) {
+            scheduler.schedule(this::notifyPending, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Notifies all pending characteristic changes at once.
+     */
+    private void notifyPending() {
+        List<Subscription> pending;
+        synchronized (pendingNotifications) {
+            pending = new ArrayList<>(pendingNotifications);
+            pendingNotifications.clear();
+        }
+        final long now = System.currentTimeMillis();
+        for (Subscription subscription : pending) {
+            if (subscriptionsByName.get(subscription.itemKey) != subscription) {
+                // Unsubscribed in the meantime
+                continue;
+            }
+            if (subscription.pendingState.equals(subscription.notifiedState)) {
+                suppressedNotifications.incrementAndGet();
+                continue;
+            }
+            try {
+                subscription.notifyChange(subscription.pendingState, now);
+                notifications.incrementAndGet();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to notify Homekit about {}: {}", subscription.itemKey, e.getMessage());
+            }
+        }
+        logger.trace("Notified {} characteristic changes", pending.size());
+    }
+
+    private class Subscription implements StateChangeListener {
+        private final ItemKey itemKey;
+        private final HomekitCharacteristicChangeCallback callback;
+        // The last state notified to Homekit and the latest state not yet notified
+        private State notifiedState;
+        private State pendingState;
+        private long firstChange;
+        // Notification statistics, guarded by this
+        private long notifications;
+        private long totalLatency;
+        private long maxLatency;
+
+        Subscription(ItemKey itemKey, HomekitCharacteristicChangeCallback callback, State state) {
+            this.itemKey = itemKey;
+            this.callback = callback;
+            this.notifiedState = state;
+            this.pendingState = state;
+        }
+
+        void notifyChange(State state, long now) {
+            notifiedState = state;
+            callback.changed();
+            final long latency = firstChange > 0 ? now - firstChange : 0;
+            synchronized (this) {
+                ++notifications;
+                totalLatency += latency;
+                maxLatency = Math.max(maxLatency, latency);
+            }
+        }
+
+        synchronized LatencyStatistics getLatencyStatistics() {
+            return new LatencyStatistics(itemKey, notifications, totalLatency, maxLatency);
+        }
 
         @Override
-        void stateChanged(Item item, State oldState, State newState);
+        public void stateChanged(Item item, State oldState, State newState) {
+            changed(this, newState);
+        }
 
         @Override
-        default void stateUpdated(Item item, State state) {
+        public void stateUpdated(Item item, State state) {
             // Do nothing on non-change update
         }
     }
 
+    /**
+     * A snapshot of the notification statistics of a subscription.
+     */
+    private static class LatencyStatistics {
+        private final ItemKey itemKey;
+        private final long notifications;
+        private final long totalLatency;
+        private final long maxLatency;
+
+        LatencyStatistics(ItemKey itemKey, long notifications, long totalLatency, long maxLatency) {
+            this.itemKey = itemKey;
+            this.notifications = notifications;
+            this.totalLatency = totalLatency;
+            this.maxLatency = maxLatency;
+        }
+    }
+
     private static class ItemKey {
         public GenericItem item;
         public String key;
@@ -98,6 +286,11 @@ public class HomekitAccessoryUpdater {
             this.key = key;
         }
 
+        @Override
+        public String toString() {
+            return key == null ? item.getName() : item.getName() + " / " + key;
+        }
+
         @Override
         public int hashCode() {
             final int prime = 31;
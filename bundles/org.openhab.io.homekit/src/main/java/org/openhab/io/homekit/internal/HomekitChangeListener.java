@@ -14,14 +14,18 @@ package org.openhab.io.homekit.internal;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemNotFoundException;
 import org.eclipse.smarthome.core.items.ItemRegistry;
@@ -36,6 +40,9 @@ import io.github.hapjava.HomekitRoot;
 /**
  * Listens for changes to the item registry. When changes are detected, check
  * for Homekit tags and, if present, add the items to the HomekitAccessoryRegistry.
+ * <p>
+ * An accessory is only re-created if one of its items has actually been replaced, added or removed. Re-creating
+ * an accessory makes the Homekit clients reload the accessory list.
  *
  * @author Andy Lintner - Initial contribution
  */
@@ -43,13 +50,17 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private final Logger logger = LoggerFactory.getLogger(HomekitChangeListener.class);
     private final ItemRegistry itemRegistry;
     private final HomekitAccessoryRegistry accessoryRegistry = new HomekitAccessoryRegistry();
-    private HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater();
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+    private HomekitAccessoryUpdater updater;
     private HomekitSettings settings;
 
     private Set<String> pendingUpdates = new HashSet<String>();
 
-    private final ScheduledExecutorService scheduler = ThreadPoolManager
-            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+    /**
+     * The items each created root accessory consists of, with the root item name as key
+     */
+    private final Map<String, List<Item>> accessoryItems = new HashMap<>();
 
     /**
      * Rather than reacting to item added/removed/modified changes directly, we mark them as dirty (and the groups to
@@ -64,6 +75,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     HomekitChangeListener(ItemRegistry itemRegistry, HomekitSettings settings) {
         this.itemRegistry = itemRegistry;
         this.settings = settings;
+        this.updater = new HomekitAccessoryUpdater(scheduler, settings.notificationDelay);
         this.applyUpdatesDebouncer = new Debouncer("update-homekit-devices", scheduler, Duration.ofMillis(1000),
                 Clock.systemUTC(), this::applyUpdates);
 
@@ -117,16 +129,48 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     }
 
     private synchronized void applyUpdates() {
-        Iterator<String> iter = pendingUpdates.iterator();
-
-        while (iter.hasNext()) {
-            String name = iter.next();
+        int unchanged = 0;
+        for (String name : pendingUpdates) {
+            Optional<HomekitTaggedItem> rootItem = getItemOptional(name)
+                    .map(i -> new HomekitTaggedItem(i, itemRegistry))
+                    .filter(i -> i.isAccessory() && !i.isMemberOfAccessoryGroup());
+            if (rootItem.isPresent() && isSameItems(accessoryItems.get(name), collectItems(rootItem.get().getItem()))) {
+                unchanged++;
+                continue;
+            }
             accessoryRegistry.remove(name);
+            accessoryItems.remove(name);
+            rootItem.ifPresent(this::createRootAccessory);
+        }
+        logger.debug("Applied {} item changes, {} accessories were unchanged", pendingUpdates.size(), unchanged);
+        pendingUpdates.clear();
+    }
 
-            getItemOptional(name).map(i -> new HomekitTaggedItem(i, itemRegistry))
-                    .filter(i -> i.isAccessory() && !i.isMemberOfAccessoryGroup())
-                    .ifPresent(rootItem -> createRootAccessory(rootItem));
+    /**
+     * Returns the given item and all its (nested) members.
+     */
+    private static List<Item> collectItems(Item item) {
+        List<Item> items = new ArrayList<>();
+        items.add(item);
+        if (item instanceof GroupItem) {
+            items.addAll(((GroupItem) item).getAllMembers());
+        }
+        return items;
+    }
+
+    /**
+     * Compares the item instances. The item registry replaces an item instance if the item has been updated.
+     */
+    static boolean isSameItems(List<Item> oldItems, List<Item> newItems) {
+        if (oldItems == null || oldItems.size() != newItems.size()) {
+            return false;
+        }
+        for (int i = 0; i < oldItems.size(); i++) {
+            if (oldItems.get(i) != newItems.get(i)) {
+                return false;
+            }
         }
+        return true;
     }
 
     @Override
@@ -137,6 +181,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public synchronized void clearAccessories() {
         accessoryRegistry.clear();
+        accessoryItems.clear();
     }
 
     public synchronized void setBridge(HomekitRoot bridge) {
@@ -151,8 +196,13 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         this.updater = updater;
     }
 
+    public HomekitAccessoryUpdater getUpdater() {
+        return updater;
+    }
+
     public void updateSettings(HomekitSettings settings) {
         this.settings = settings;
+        updater.setNotificationDelay(settings.notificationDelay);
     }
 
     public void stop() {
@@ -169,6 +219,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
             logger.debug("Adding homekit device {}", taggedItem.getItem().getUID());
             accessoryRegistry.addRootAccessory(taggedItem.getName(),
                     HomekitAccessoryFactory.create(taggedItem, itemRegistry, updater, settings));
+            accessoryItems.put(taggedItem.getName(), collectItems(taggedItem.getItem()));
             logger.debug("Added homekit device {}", taggedItem.getItem().getUID());
         } catch (HomekitException | IncompleteAccessoryException e) {
             logger.warn("Could not add device {}: {}", taggedItem.getItem().getUID(), e.getMessage());
@@ -34,6 +34,7 @@ import org.slf4j.LoggerFactory;
 public class HomekitCommandExtension extends AbstractConsoleCommandExtension {
     private static final String SUBCMD_CLEAR_PAIRINGS = "clearPairings";
     private static final String SUBCMD_ALLOW_UNAUTHENTICATED = "allowUnauthenticated";
+    private static final String SUBCMD_NOTIFICATIONS = "notifications";
 
     private final Logger logger = LoggerFactory.getLogger(HomekitCommandExtension.class);
     private StorageService storageService;
@@ -61,6 +62,10 @@ public class HomekitCommandExtension extends AbstractConsoleCommandExtension {
                     }
                     break;
 
+                case SUBCMD_NOTIFICATIONS:
+                    printNotificationStatistics(console);
+                    break;
+
                 default:
                     console.println("Unknown command '" + subCommand + "'");
                     printUsage(console);
@@ -74,7 +79,9 @@ public class HomekitCommandExtension extends AbstractConsoleCommandExtension {
         return Arrays.asList(
                 new String[] { buildCommandUsage(SUBCMD_CLEAR_PAIRINGS, "removes all pairings with Homekit clients"),
                         buildCommandUsage(SUBCMD_ALLOW_UNAUTHENTICATED + " <boolean>",
-                                "enables or disables unauthenticated access to facilitate debugging") });
+                                "enables or disables unauthenticated access to facilitate debugging"),
+                        buildCommandUsage(SUBCMD_NOTIFICATIONS,
+                                "shows the number and latency of notifications sent to Homekit clients") });
     }
 
     @Reference
@@ -110,4 +117,16 @@ public class HomekitCommandExtension extends AbstractConsoleCommandExtension {
         console.println((allow ? "Enabled " : "Disabled ") + "unauthenticated homekit access");
     }
 
+    private void printNotificationStatistics(Console console) {
+        if (!(homekit instanceof HomekitImpl)) {
+            console.println("No notification statistics available");
+            return;
+        }
+        HomekitAccessoryUpdater updater = ((HomekitImpl) homekit).getAccessoryUpdater();
+        console.println("Notifications: " + updater.getNotifications());
+        console.println("Coalesced changes: " + updater.getCoalescedChanges());
+        console.println("Suppressed notifications: " + updater.getSuppressedNotifications());
+        updater.getLatencyStatistics().forEach(console::println);
+    }
+
 }
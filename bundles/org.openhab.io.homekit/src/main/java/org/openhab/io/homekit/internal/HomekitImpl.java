@@ -166,4 +166,11 @@ public class HomekitImpl implements Homekit {
             bridge.allowUnauthenticatedRequests(allow);
         }
     }
+
+    /**
+     * Returns the updater that notifies Homekit clients about item changes.
+     */
+    public HomekitAccessoryUpdater getAccessoryUpdater() {
+        return changeListener.getUpdater();
+    }
 }
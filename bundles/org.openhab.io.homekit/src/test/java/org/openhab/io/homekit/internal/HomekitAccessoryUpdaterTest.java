@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.StateChangeListener;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.github.hapjava.HomekitCharacteristicChangeCallback;
+
+/**
+ * Tests the coalescing of item changes by the {@link HomekitAccessoryUpdater}.
+ *
+ * @author agent - Initial contribution
+ */
+public class HomekitAccessoryUpdaterTest {
+    private static final int DELAY = 100;
+
+    private ScheduledExecutorService scheduler;
+    private GenericItem item;
+    private HomekitCharacteristicChangeCallback callback;
+
+    @Before
+    public void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+        item = mock(GenericItem.class);
+        when(item.getName()).thenReturn("item");
+        when(item.getState()).thenReturn(OnOffType.OFF);
+        callback = mock(HomekitCharacteristicChangeCallback.class);
+    }
+
+    private StateChangeListener subscribe(HomekitAccessoryUpdater updater) {
+        updater.subscribe(item, callback);
+        ArgumentCaptor<StateChangeListener> captor = ArgumentCaptor.forClass(StateChangeListener.class);
+        verify(item).addStateChangeListener(captor.capture());
+        return captor.getValue();
+    }
+
+    /**
+     * Verifies how often the notifications have been scheduled and runs the last scheduled notification.
+     */
+    private void runScheduled(int expectedTimes) {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(expectedTimes)).schedule(captor.capture(), eq((long) DELAY),
+                eq(TimeUnit.MILLISECONDS));
+        captor.getValue().run();
+    }
+
+    @Test
+    public void notifiesImmediatelyWithoutDelay() {
+        HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater(scheduler, 0);
+        StateChangeListener listener = subscribe(updater);
+
+        listener.stateChanged(item, OnOffType.OFF, OnOffType.ON);
+        listener.stateChanged(item, OnOffType.ON, OnOffType.OFF);
+
+        verify(callback, times(2)).changed();
+        verifyZeroInteractions(scheduler);
+        assertThat(updater.getNotifications(), is(2L));
+        assertThat(updater.getCoalescedChanges(), is(0L));
+    }
+
+    @Test
+    public void changesWithinDelayAreCoalesced() {
+        HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater(scheduler, DELAY);
+        StateChangeListener listener = subscribe(updater);
+
+        listener.stateChanged(item, OnOffType.OFF, OnOffType.ON);
+        listener.stateChanged(item, OnOffType.ON, OnOffType.OFF);
+        listener.stateChanged(item, OnOffType.OFF, OnOffType.ON);
+        verify(callback, never()).changed();
+
+        runScheduled(1);
+
+        verify(callback).changed();
+        assertThat(updater.getNotifications(), is(1L));
+        assertThat(updater.getCoalescedChanges(), is(2L));
+        assertThat(updater.getSuppressedNotifications(), is(0L));
+
+        List<String> statistics = updater.getLatencyStatistics();
+        assertThat(statistics.size(), is(1));
+        assertThat(statistics.get(0), startsWith("item: 1 notifications"));
+    }
+
+    @Test
+    public void stateBackToNotifiedStateIsSuppressed() {
+        HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater(scheduler, DELAY);
+        StateChangeListener listener = subscribe(updater);
+
+        listener.stateChanged(item, OnOffType.OFF, OnOffType.ON);
+        listener.stateChanged(item, OnOffType.ON, OnOffType.OFF);
+        runScheduled(1);
+
+        verify(callback, never()).changed();
+        assertThat(updater.getNotifications(), is(0L));
+        assertThat(updater.getCoalescedChanges(), is(1L));
+        assertThat(updater.getSuppressedNotifications(), is(1L));
+
+        // The next change is scheduled again and compared with the notified state OFF
+        listener.stateChanged(item, OnOffType.OFF, OnOffType.ON);
+        runScheduled(2);
+
+        verify(callback).changed();
+        assertThat(updater.getNotifications(), is(1L));
+        assertThat(updater.getSuppressedNotifications(), is(1L));
+    }
+
+    @Test
+    public void unsubscribedItemIsNotNotified() {
+        HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater(scheduler, DELAY);
+        StateChangeListener listener = subscribe(updater);
+
+        listener.stateChanged(item, OnOffType.OFF, OnOffType.ON);
+        updater.unsubscribe(item);
+        runScheduled(1);
+
+        verify(item).removeStateChangeListener(listener);
+        verify(callback, never()).changed();
+        assertThat(updater.getNotifications(), is(0L));
+        assertThat(updater.getLatencyStatistics().isEmpty(), is(true));
+    }
+}
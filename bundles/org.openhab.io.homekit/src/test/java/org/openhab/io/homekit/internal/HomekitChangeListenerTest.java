@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+
+import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.items.Item;
+import org.junit.Test;
+
+/**
+ * Tests how the {@link HomekitChangeListener} detects changed accessories.
+ *
+ * @author agent - Initial contribution
+ */
+public class HomekitChangeListenerTest {
+    private final Item group = mock(GroupItem.class);
+    private final Item member = mock(Item.class);
+    private final Item otherMember = mock(Item.class);
+
+    @Test
+    public void sameItemsAreUnchanged() {
+        assertTrue(HomekitChangeListener.isSameItems(Arrays.asList(group, member), Arrays.asList(group, member)));
+    }
+
+    @Test
+    public void unknownAccessoryIsChanged() {
+        assertFalse(HomekitChangeListener.isSameItems(null, Arrays.asList(group)));
+    }
+
+    @Test
+    public void addedMemberIsChanged() {
+        assertFalse(HomekitChangeListener.isSameItems(Arrays.asList(group, member),
+                Arrays.asList(group, member, otherMember)));
+    }
+
+    @Test
+    public void replacedItemIsChanged() {
+        // The item registry replaces the instance of an updated item
+        Item updatedMember = mock(Item.class);
+        assertFalse(HomekitChangeListener.isSameItems(Arrays.asList(group, member),
+                Arrays.asList(group, updatedMember)));
+    }
+
+    @Test
+    public void removedMemberIsChanged() {
+        assertFalse(HomekitChangeListener.isSameItems(Arrays.asList(group, member, otherMember),
+                Arrays.asList(group, member)));
+    }
+}
@@ -13,14 +13,17 @@
 package org.openhab.io.hueemulation.internal.dto;
 
 import java.lang.reflect.Type;
+import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.library.items.StringItem;
+import org.eclipse.smarthome.core.types.State;
 import org.openhab.io.hueemulation.internal.DeviceType;
 import org.openhab.io.hueemulation.internal.StateUtils;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
@@ -53,6 +56,11 @@ public class HueLightEntry {
     public @NonNullByDefault({}) transient GenericItem item;
     public transient DeviceType deviceType;
 
+    /** Cached JSON representation and the item state and label it was created for, see {@link #toJson(Gson)} */
+    private transient @Nullable String json;
+    private transient @Nullable State jsonState;
+    private transient @Nullable String jsonLabel;
+
     public static class Config {
         public final String archetype = "classicbulb";
         public final String function = "functional";
@@ -177,6 +185,26 @@ public class HueLightEntry {
         }
     }
 
+    /**
+     * Returns the JSON representation of this device. The representation is cached and only created again,
+     * if the state or the label of the associated item changed in the meantime.
+     *
+     * @param gson The gson instance with the {@link Serializer} registered
+     * @return A JSON object
+     */
+    public synchronized String toJson(Gson gson) {
+        final State itemState = item.getState();
+        final String label = item.getLabel();
+        String json = this.json;
+        if (json == null || !itemState.equals(jsonState) || !Objects.equals(label, jsonLabel)) {
+            json = gson.toJson(this);
+            this.json = json;
+            this.jsonState = itemState;
+            this.jsonLabel = label;
+        }
+        return json;
+    }
+
     /**
      * Replaces the associated openHAB item of this hue device with the given once
      * and also synchronizes/updates the color information of this hue device with the item.
@@ -186,6 +214,9 @@ public class HueLightEntry {
     public void updateItem(GenericItem element) {
         item = element;
         state = StateUtils.colorStateFromItemState(item.getState(), deviceType);
+        synchronized (this) {
+            json = null;
+        }
 
         String label = element.getLabel();
         if (label != null) {
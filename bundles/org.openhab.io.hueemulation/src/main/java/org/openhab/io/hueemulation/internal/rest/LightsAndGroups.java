@@ -12,8 +12,13 @@
  */
 package org.openhab.io.hueemulation.internal.rest;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -26,8 +31,11 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -41,6 +49,7 @@ import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.items.events.ItemEventFactory;
 import org.eclipse.smarthome.core.library.CoreItemFactory;
 import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.util.HexUtils;
 import org.openhab.io.hueemulation.internal.ConfigStore;
 import org.openhab.io.hueemulation.internal.DeviceType;
 import org.openhab.io.hueemulation.internal.NetworkUtils;
@@ -60,6 +69,7 @@ import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
 import io.swagger.annotations.ApiOperation;
@@ -242,13 +252,66 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @GET
     @Path("{username}/lights")
     @ApiOperation(value = "Return all lights")
-    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getAllLightsApi(@Context UriInfo uri,
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 304, message = "Not modified") })
+    public Response getAllLightsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @ApiParam(value = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights)).build();
+        // Polling clients get a "not modified" response as long as no light changed
+        String body = toJsonObject(lightsJson(cs.gson, cs.ds.lights));
+        EntityTag tag = entityTag(body);
+        ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(body).tag(tag).build();
+    }
+
+    /**
+     * Returns an entity tag of the given response body: The SHA-256 hash of the body.
+     */
+    static EntityTag entityTag(String body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return new EntityTag(HexUtils.bytesToHex(digest.digest(body.getBytes(StandardCharsets.UTF_8))));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the cached JSON representation of each light, with the hue ID as key.
+     *
+     * @param gson The gson instance
+     * @param lights The lights
+     */
+    static Map<String, String> lightsJson(Gson gson, Map<String, HueLightEntry> lights) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (Map.Entry<String, HueLightEntry> entry : lights.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().toJson(gson));
+        }
+        return result;
+    }
+
+    /**
+     * Assembles a JSON object from the given, already serialized, values.
+     *
+     * @param values JSON values with the JSON object keys as map key. Keys are not escaped, hue IDs are numeric.
+     */
+    static String toJsonObject(Map<String, String> values) {
+        StringBuilder builder = new StringBuilder(values.values().stream().mapToInt(String::length).sum()
+                + values.size() * 8 + 2);
+        builder.append('{');
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            builder.append('"').append(entry.getKey()).append("\":").append(entry.getValue());
+        }
+        return builder.append('}').toString();
     }
 
     @GET
@@ -285,7 +348,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights.get(id))).build();
+        HueLightEntry hueDevice = cs.ds.lights.get(id);
+        return Response.ok(hueDevice != null ? hueDevice.toJson(cs.gson) : cs.gson.toJson(null)).build();
     }
 
     @SuppressWarnings({ "null", "unused" })
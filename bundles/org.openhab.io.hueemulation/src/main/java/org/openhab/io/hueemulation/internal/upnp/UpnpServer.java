@@ -26,11 +26,14 @@ import java.nio.channels.Selector;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -92,13 +95,25 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
      * Send a keep alive every 2 minutes
      */
     private static final int CACHE_MSECS = 120 * 1000;
+    /**
+     * M-SEARCH requests of the same source are answered at most once within this time
+     */
+    static final int SEARCH_RESPONSE_INTERVAL_MSECS = 500;
+    private static final byte[] M_SEARCH = "M-SEARCH".getBytes(StandardCharsets.US_ASCII);
 
     private final Logger logger = LoggerFactory.getLogger(UpnpServer.class);
 
     public final InetAddress MULTI_ADDR_IPV4;
     public final InetAddress MULTI_ADDR_IPV6;
-    private String[] stVersions = { "", "", "" };
-    private String notifyMsg = "";
+    // Prebuilt responses, only created again if the address or configuration changes
+    private volatile ByteBuffer[] stResponses = new ByteBuffer[0];
+    private volatile ByteBuffer notifyResponse = ByteBuffer.allocate(0);
+
+    // Last response time per M-SEARCH source. Only accessed by the upnp thread.
+    private final Map<SocketAddress, Long> lastSearchResponses = new HashMap<>();
+    private final AtomicLong receivedSearches = new AtomicLong();
+    private final AtomicLong answeredSearches = new AtomicLong();
+    private final AtomicLong suppressedSearches = new AtomicLong();
 
     //// objects, set within activate()
     protected @NonNullByDefault({}) String xmlDoc;
@@ -203,29 +218,35 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
 
         final String[] stVersions = { "upnp:rootdevice", "urn:schemas-upnp-org:device:basic:1",
                 "uuid:" + config.config.uuid };
+        final ByteBuffer[] stResponses = new ByteBuffer[stVersions.length];
         for (int i = 0; i < stVersions.length; ++i) {
-            this.stVersions[i] = String.format(
+            stResponses[i] = toBuffer(String.format(
                     "HTTP/1.1 200 OK\r\n" + "HOST: %s:%d\r\n" + "EXT:\r\n" + "CACHE-CONTROL: max-age=%d\r\n"
                             + "LOCATION: %s\r\n" + "SERVER: Linux/3.14.0 UPnP/1.0 IpBridge/%s\r\n"
                             + "hue-bridgeid: %s\r\n" + "ST: %s\r\n" + "USN: uuid:%s\r\n\r\n",
                     r.getMulticastAddress(), UPNP_PORT, CACHE_MSECS / 1000, baseurl, // host:port,
                                                                                      // cache,location
                     cs.ds.config.apiversion, cs.ds.config.bridgeid, // version, bridgeid
-                    stVersions[i], config.config.uuid);
+                    stVersions[i], config.config.uuid));
         }
+        this.stResponses = stResponses;
 
-        this.notifyMsg = String.format(
+        this.notifyResponse = toBuffer(String.format(
                 "NOTIFY * HTTP/1.1\r\n" + "HOST: %s:%d\r\n" + "CACHE-CONTROL: max-age=%d\r\n" + "LOCATION: %s\r\n"
                         + "SERVER: Linux/3.14.0 UPnP/1.0 IpBridge/%s\r\nNTS: ssdp:alive\r\nNT: upnp:rootdevice\r\n"
                         + "USN: uuid:%s::upnp:rootdevice\r\n" + "hue-bridgeid: %s\r\n\r\n",
                 r.getMulticastAddress(), UPNP_PORT, CACHE_MSECS / 1000, baseurl, // host:port, cache,location
-                cs.ds.config.apiversion, config.config.uuid, cs.ds.config.bridgeid);// version, uuid, bridgeid
+                cs.ds.config.apiversion, config.config.uuid, cs.ds.config.bridgeid));// version, uuid, bridgeid
 
         xmlDocWithAddress = String.format(xmlDoc, urlBase, r.addressString, cs.ds.config.bridgeid, cs.ds.config.uuid,
                 cs.ds.config.devicename);
 
     }
 
+    private static ByteBuffer toBuffer(String message) {
+        return ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+
     protected @Nullable HueEmulationConfigWithRuntime performAddressTest(
             @Nullable HueEmulationConfigWithRuntime config) {
         if (config == null) {
@@ -369,38 +390,67 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
         ClientRecord clntRec = (ClientRecord) key.attachment();
         clntRec.buffer.clear(); // Prepare buffer for receiving
         clntRec.clientAddress = channel.receive(clntRec.buffer);
-        InetSocketAddress recAddress = (InetSocketAddress) clntRec.clientAddress;
+        @Nullable
+        SocketAddress recAddress = clntRec.clientAddress;
         if (recAddress == null) { // Did we receive something?
             return;
         }
-        String data = new String(clntRec.buffer.array(), StandardCharsets.UTF_8);
-        if (!data.startsWith("M-SEARCH")) {
+        if (!isSearchRequest(clntRec.buffer)) {
             return;
         }
+        receivedSearches.incrementAndGet();
+
+        // Devices tend to send a burst of requests. Answer only once per source and interval.
+        final long now = System.currentTimeMillis();
+        Long lastResponse = lastSearchResponses.get(recAddress);
+        if (lastResponse != null && now - lastResponse < SEARCH_RESPONSE_INTERVAL_MSECS) {
+            suppressedSearches.incrementAndGet();
+            logger.trace("Suppress M-SEARCH response to {}", recAddress);
+            return;
+        }
+        if (lastSearchResponses.size() > 100) {
+            lastSearchResponses.values().removeIf(time -> now - time >= SEARCH_RESPONSE_INTERVAL_MSECS);
+        }
+        lastSearchResponses.put(recAddress, now);
+        answeredSearches.incrementAndGet();
+
+        // Respond with the channel that received the request
+        sendUPNPDatagrams(channel, recAddress);
+    }
 
-        try (DatagramSocket sendSocket = new DatagramSocket()) {
-            sendUPNPDatagrams(sendSocket, recAddress.getAddress(), recAddress.getPort());
+    /**
+     * Returns true if the received datagram in the given buffer is a M-SEARCH request.
+     */
+    private static boolean isSearchRequest(ByteBuffer buffer) {
+        if (buffer.position() < M_SEARCH.length) {
+            return false;
         }
+        for (int i = 0; i < M_SEARCH.length; ++i) {
+            if (buffer.get(i) != M_SEARCH[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private void sendUPNPDatagrams(DatagramSocket sendSocket, InetAddress address, int port) {
+    private void sendUPNPDatagrams(DatagramChannel channel, SocketAddress target) {
         logger.trace("upnp thread send announcement");
-        for (String msg : stVersions) {
-            DatagramPacket response = new DatagramPacket(msg.getBytes(), msg.length(), address, port);
-            try {
-                logger.trace("Sending to {}:{}", address.getHostAddress(), port);
-                sendSocket.send(response);
-            } catch (IOException e) {
-                logger.warn("Could not send UPNP response: {}", e.getMessage());
-            }
+        for (ByteBuffer response : stResponses) {
+            send(channel, response, target);
         }
     }
 
-    private void sendUPNPNotify(DatagramSocket sendSocket, InetAddress address, int port) {
-        DatagramPacket response = new DatagramPacket(notifyMsg.getBytes(), notifyMsg.length(), address, port);
+    private void sendUPNPNotify(DatagramChannel channel, SocketAddress target) {
+        send(channel, notifyResponse, target);
+    }
+
+    private void send(DatagramChannel channel, ByteBuffer message, SocketAddress target) {
         try {
-            logger.trace("Sending to {}:{}", address.getHostAddress(), port);
-            sendSocket.send(response);
+            logger.trace("Sending to {}", target);
+            // Each send requires its own position, the prebuilt buffer is shared
+            if (channel.send(message.duplicate(), target) == 0) {
+                logger.debug("Could not send UPNP response to {}: Send buffer full", target);
+            }
         } catch (IOException e) {
             logger.warn("Could not send UPNP response: {}", e.getMessage());
         }
@@ -412,9 +462,17 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
         boolean hasIPv4 = false;
         boolean hasIPv6 = false;
 
+        final @Nullable InetAddress sendAddressV4 = threadContext.address instanceof Inet4Address
+                ? threadContext.address : null;
+        final SocketAddress multicastV4 = new InetSocketAddress(MULTI_ADDR_IPV4, UPNP_PORT);
+        final SocketAddress multicastV6 = new InetSocketAddress(MULTI_ADDR_IPV6, UPNP_PORT);
+
         try (   Selector selector = Selector.open();
                 DatagramChannel channelV4 = createBoundDataGramChannelOrNull(StandardProtocolFamily.INET);
-                DatagramChannel channelV6 = createBoundDataGramChannelOrNull(StandardProtocolFamily.INET6)) {
+                DatagramChannel channelV6 = createBoundDataGramChannelOrNull(StandardProtocolFamily.INET6);
+                // Channels for multicast announcements, kept open while the thread is running
+                DatagramChannel sendChannelV4 = createSendChannelOrNull(StandardProtocolFamily.INET, sendAddressV4);
+                DatagramChannel sendChannelV6 = createSendChannelOrNull(StandardProtocolFamily.INET6, null)) {
 
             // Set global config to thread local config. Otherwise upnpAnnouncementThreadRunning() will report wrong results.
             config = threadContext;
@@ -443,15 +501,15 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
             if (hasIPv4) {
                 channelV4.configureBlocking(false);
                 channelV4.register(selector, SelectionKey.OP_READ, new ClientRecord());
-                try (DatagramSocket sendSocket = new DatagramSocket(new InetSocketAddress(config.address, 0))) {
-                    sendUPNPDatagrams(sendSocket, MULTI_ADDR_IPV4, UPNP_PORT);
+                if (sendChannelV4 != null) {
+                    sendUPNPDatagrams(sendChannelV4, multicastV4);
                 }
             }
             if (hasIPv6) {
                 channelV6.configureBlocking(false);
                 channelV6.register(selector, SelectionKey.OP_READ, new ClientRecord());
-                try (DatagramSocket sendSocket = new DatagramSocket()) {
-                    sendUPNPDatagrams(sendSocket, MULTI_ADDR_IPV6, UPNP_PORT);
+                if (sendChannelV6 != null) {
+                    sendUPNPDatagrams(sendChannelV6, multicastV6);
                 }
             }
 
@@ -473,15 +531,11 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
                 if (time.plusMillis(CACHE_MSECS - 200).isBefore(Instant.now())) {
                     logger.trace("upnp thread send periodic announcement");
                     time = Instant.now();
-                    if (hasIPv4) {
-                        try (DatagramSocket sendSocket = new DatagramSocket(new InetSocketAddress(config.address, 0))) {
-                            sendUPNPNotify(sendSocket, MULTI_ADDR_IPV4, UPNP_PORT);
-                        }
+                    if (hasIPv4 && sendChannelV4 != null) {
+                        sendUPNPNotify(sendChannelV4, multicastV4);
                     }
-                    if (hasIPv6) {
-                        try (DatagramSocket sendSocket = new DatagramSocket()) {
-                            sendUPNPNotify(sendSocket, MULTI_ADDR_IPV6, UPNP_PORT);
-                        }
+                    if (hasIPv6 && sendChannelV6 != null) {
+                        sendUPNPNotify(sendChannelV6, multicastV6);
                     }
                 }
             }
@@ -491,6 +545,17 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
             threadContext.future.completeExceptionally(e);
         } finally {
             threadContext.asyncIOselector = null;
+            lastSearchResponses.clear();
+        }
+    }
+
+    @Nullable
+    private DatagramChannel createSendChannelOrNull(StandardProtocolFamily family, @Nullable InetAddress address)
+            throws IOException {
+        try {
+            return DatagramChannel.open(family).bind(new InetSocketAddress(address, 0));
+        } catch (UnsupportedOperationException uoe) {
+            return null;
         }
     }
 
@@ -523,6 +588,28 @@ public class UpnpServer extends HttpServlet implements Consumer<HueEmulationConf
         return config.port;
     }
 
+    /**
+     * Returns the number of received M-SEARCH requests.
+     */
+    public long getReceivedSearches() {
+        return receivedSearches.get();
+    }
+
+    /**
+     * Returns the number of answered M-SEARCH requests.
+     */
+    public long getAnsweredSearches() {
+        return answeredSearches.get();
+    }
+
+    /**
+     * Returns the number of M-SEARCH requests that were not answered, because the same source has been answered
+     * within {@value #SEARCH_RESPONSE_INTERVAL_MSECS} milliseconds.
+     */
+    public long getSuppressedSearches() {
+        return suppressedSearches.get();
+    }
+
     public boolean upnpAnnouncementThreadRunning() {
         return config.asyncIOselector != null;
     }
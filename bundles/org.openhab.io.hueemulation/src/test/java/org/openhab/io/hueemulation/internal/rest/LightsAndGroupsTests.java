@@ -339,6 +339,38 @@ public class LightsAndGroupsTests {
         assertThat(body, containsString("color"));
     }
 
+    @Test
+    public void allLightsNotModified() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertEquals(200, response.getStatus());
+        String etag = response.getHeaderString("ETag");
+        assertThat(etag, is(notNullValue()));
+        String body = response.readEntity(String.class);
+
+        // Same response as a full serialization
+        assertThat(body, is(cs.gson.toJson(cs.ds.lights)));
+
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header("If-None-Match", etag).get();
+        assertEquals(304, response.getStatus());
+
+        // Change a light
+        ((SwitchItem) cs.ds.lights.get("1").item).setState(OnOffType.ON);
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header("If-None-Match", etag).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.getHeaderString("ETag"), is(not(etag)));
+    }
+
+    @Test
+    public void entityTagIsHashOfBody() {
+        assertThat(LightsAndGroups.entityTag("{\"1\":{}}"), is(LightsAndGroups.entityTag("{\"1\":{}}")));
+        // Bodies with the same String hash code
+        assertThat("Aa".hashCode(), is("BB".hashCode()));
+        assertThat(LightsAndGroups.entityTag("Aa"), is(not(LightsAndGroups.entityTag("BB"))));
+        assertThat(LightsAndGroups.entityTag("").getValue().length(), is(64));
+    }
+
     private boolean assertHueValue(ItemCommandEvent ce, int hueValue) {
         assertThat(((HSBType) ce.getItemCommand()).getHue().intValue(), is(hueValue * 360 / HueStateColorBulb.MAX_HUE));
         return true;
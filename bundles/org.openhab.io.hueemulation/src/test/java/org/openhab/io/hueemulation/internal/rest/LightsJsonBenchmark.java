@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal.rest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.library.items.ColorItem;
+import org.eclipse.smarthome.core.library.items.DimmerItem;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.openhab.io.hueemulation.internal.DeviceType;
+import org.openhab.io.hueemulation.internal.dto.HueLightEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Creates the response of the "all lights" endpoint for 400 exposed items. Compares the serialization of the whole
+ * lights map with assembling the response from the cached JSON of each light. A few item states change
+ * between two requests, like between two polls of a client.
+ *
+ * Run the main method from the IDE or with the test classpath, it is not part of the unit tests.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LightsJsonBenchmark {
+
+    @Param({ "400" })
+    public int lightCount = 400;
+
+    @Param({ "4" })
+    public int changesPerRequest = 4;
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(HueLightEntry.class, new HueLightEntry.Serializer()).create();
+    private final Map<String, HueLightEntry> lights = new TreeMap<>();
+    private DimmerItem[] dimmers = new DimmerItem[0];
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        lights.clear();
+        dimmers = new DimmerItem[lightCount / 4];
+        for (int i = 0; i < lightCount; i++) {
+            String hueID = String.valueOf(i + 1);
+            switch (i % 4) {
+                case 0:
+                    DimmerItem dimmer = new DimmerItem("dimmer" + i);
+                    dimmer.setState(new PercentType(50));
+                    dimmers[i / 4] = dimmer;
+                    lights.put(hueID, new HueLightEntry(dimmer, hueID, DeviceType.WhiteType));
+                    break;
+                case 1:
+                    lights.put(hueID, new HueLightEntry(new ColorItem("color" + i), hueID, DeviceType.ColorType));
+                    break;
+                default:
+                    SwitchItem item = new SwitchItem("switch" + i);
+                    item.setState(OnOffType.ON);
+                    lights.put(hueID, new HueLightEntry(item, hueID, DeviceType.SwitchType));
+                    break;
+            }
+        }
+    }
+
+    private void changeStates() {
+        for (int i = 0; i < changesPerRequest; i++) {
+            counter++;
+            dimmers[counter % dimmers.length].setState(new PercentType(counter % 101));
+        }
+    }
+
+    @Benchmark
+    public String serializeAll() {
+        changeStates();
+        return gson.toJson(lights);
+    }
+
+    @Benchmark
+    public String assembleCached() {
+        changeStates();
+        return LightsAndGroups.toJsonObject(LightsAndGroups.lightsJson(gson, lights));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LightsJsonBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -134,6 +134,14 @@ public class UpnpTests {
             String received = new String(buffer);
             assertThat(received, CoreMatchers.startsWith("HTTP/1.1 200 OK"));
             assertThat(received, CoreMatchers.containsString("hue-bridgeid: DEMOUUID"));
+
+            // A repeated request of the same source within the response interval is not answered
+            sendSocket.send(new DatagramPacket(bytes, bytes.length, subject.MULTI_ADDR_IPV4, UpnpServer.UPNP_PORT));
+            for (int i = 0; i < 50 && subject.getSuppressedSearches() == 0; ++i) {
+                Thread.sleep(10);
+            }
+            assertTrue(subject.getSuppressedSearches() >= 1);
+            assertThat(subject.getAnsweredSearches(), is(1L));
         }
 
         r.dispose();
@@ -0,0 +1,372 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.mqttembeddedbroker.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.moquette.broker.security.IAuthorizatorPolicy;
+import io.moquette.broker.subscriptions.Topic;
+import io.moquette.interception.InterceptHandler;
+import io.moquette.interception.messages.InterceptAcknowledgedMessage;
+import io.moquette.interception.messages.InterceptConnectMessage;
+import io.moquette.interception.messages.InterceptConnectionLostMessage;
+import io.moquette.interception.messages.InterceptDisconnectMessage;
+import io.moquette.interception.messages.InterceptPublishMessage;
+import io.moquette.interception.messages.InterceptSubscribeMessage;
+import io.moquette.interception.messages.InterceptUnsubscribeMessage;
+
+/**
+ * Collects runtime statistics of the embedded broker: Connected clients, published messages, message rates
+ * and the size of the retained message store.
+ * <p>
+ * This object is also the authorizator policy of the broker. If a maximum message rate is set,
+ * publishes of a client that exceed that rate are rejected, so that a flooding client cannot slow down
+ * the broker and openHAB. The embedded openHAB connection is never limited.
+ * <p>
+ * Moquette offers no other way to drop a message: Intercept handlers are only notified. A rejected publish
+ * is therefore handled like an unauthorized one. Moquette logs an error for each of them and does not
+ * acknowledge QoS 1 and 2 publishes, so that such clients will resend the message later on. The rejections
+ * are counted per client and in total, but logged by this class only once per client.
+ * <p>
+ * Moquette does not report the retained messages loaded from its persistence file. Their sizes are
+ * therefore stored next to the persistence file by {@link #saveRetainedMessages(Path)} and loaded again
+ * by {@link #loadRetainedMessages(Path)}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class BrokerStatistics implements InterceptHandler, IAuthorizatorPolicy {
+    private final Logger logger = LoggerFactory.getLogger(BrokerStatistics.class);
+
+    private final Map<String, ClientStatistics> clients = new ConcurrentHashMap<>();
+    private final Map<String, Integer> retainedMessages = new ConcurrentHashMap<>();
+    private final RateCounter messageRate = new RateCounter();
+    private final AtomicLong publishedMessages = new AtomicLong();
+    private final AtomicLong rejectedMessages = new AtomicLong();
+    private int maxClientMessageRate;
+
+    /**
+     * Counts events within the current second and keeps the count of the last complete second.
+     */
+    static class RateCounter {
+        private long currentSecond;
+        private int currentCount;
+        private int lastCount;
+
+        /**
+         * Counts an event.
+         *
+         * @param now The current time in milliseconds
+         * @return The number of events within the current second, including this one
+         */
+        synchronized int increment(long now) {
+            roll(now);
+            return ++currentCount;
+        }
+
+        /**
+         * Returns the number of events of the last complete second.
+         *
+         * @param now The current time in milliseconds
+         */
+        synchronized int getRate(long now) {
+            roll(now);
+            return lastCount;
+        }
+
+        private void roll(long now) {
+            final long second = now / 1000;
+            if (second != currentSecond) {
+                lastCount = second == currentSecond + 1 ? currentCount : 0;
+                currentCount = 0;
+                currentSecond = second;
+            }
+        }
+    }
+
+    /**
+     * Statistics of a single client.
+     */
+    public static class ClientStatistics {
+        private final String clientID;
+        private final RateCounter messageRate = new RateCounter();
+        private final AtomicLong publishedMessages = new AtomicLong();
+        private final AtomicLong rejectedMessages = new AtomicLong();
+
+        ClientStatistics(String clientID) {
+            this.clientID = clientID;
+        }
+
+        public String getClientID() {
+            return clientID;
+        }
+
+        /**
+         * Returns the number of messages published by this client.
+         */
+        public long getPublishedMessages() {
+            return publishedMessages.get();
+        }
+
+        /**
+         * Returns the number of messages of this client that were rejected, because the maximum message rate
+         * was exceeded.
+         */
+        public long getRejectedMessages() {
+            return rejectedMessages.get();
+        }
+
+        /**
+         * Returns the number of messages published by this client within the last second.
+         */
+        public int getMessagesPerSecond() {
+            return messageRate.getRate(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Sets the maximum number of messages per second a single client is allowed to publish.
+     *
+     * @param maxClientMessageRate Messages per second. 0 disables the limit.
+     */
+    public void setMaxClientMessageRate(int maxClientMessageRate) {
+        this.maxClientMessageRate = maxClientMessageRate;
+    }
+
+    public int getMaxClientMessageRate() {
+        return maxClientMessageRate;
+    }
+
+    /**
+     * Returns the statistics of all connected clients, with the client ID as key.
+     */
+    public Map<String, ClientStatistics> getClients() {
+        return Collections.unmodifiableMap(clients);
+    }
+
+    /**
+     * Returns the number of published messages.
+     */
+    public long getPublishedMessages() {
+        return publishedMessages.get();
+    }
+
+    /**
+     * Returns the number of messages that were rejected, because a client exceeded the maximum message rate.
+     */
+    public long getRejectedMessages() {
+        return rejectedMessages.get();
+    }
+
+    /**
+     * Returns the number of messages published within the last second.
+     */
+    public int getMessagesPerSecond() {
+        return messageRate.getRate(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the number of retained messages.
+     */
+    public int getRetainedMessages() {
+        return retainedMessages.size();
+    }
+
+    /**
+     * Returns the accumulated payload size of all retained messages in bytes.
+     */
+    public long getRetainedBytes() {
+        return retainedMessages.values().stream().mapToLong(Integer::longValue).sum();
+    }
+
+    /**
+     * Replaces the retained message sizes by the ones stored in the given file. The retained messages are
+     * forgotten, if the file does not exist.
+     *
+     * @param file A file written by {@link #saveRetainedMessages(Path)}
+     * @throws IOException If the file cannot be read
+     */
+    public void loadRetainedMessages(Path file) throws IOException {
+        retainedMessages.clear();
+        if (!Files.exists(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            properties.load(inputStream);
+        }
+        for (String topic : properties.stringPropertyNames()) {
+            try {
+                retainedMessages.put(topic, Integer.valueOf(properties.getProperty(topic)));
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring invalid retained message size of topic {}", topic);
+            }
+        }
+        logger.debug("Loaded the sizes of {} retained messages", retainedMessages.size());
+    }
+
+    /**
+     * Stores the retained message sizes in the given file.
+     *
+     * @param file The file. An existing file is overwritten.
+     * @throws IOException If the file cannot be written
+     */
+    public void saveRetainedMessages(Path file) throws IOException {
+        Properties properties = new Properties();
+        retainedMessages.forEach((topic, size) -> properties.setProperty(topic, size.toString()));
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            properties.store(outputStream, "Retained message sizes of the embedded MQTT broker");
+        }
+    }
+
+    /**
+     * Forgets all retained messages, for example because the persistence file was deleted.
+     */
+    public void clearRetainedMessages() {
+        retainedMessages.clear();
+    }
+
+    private ClientStatistics client(String clientID) {
+        return clients.computeIfAbsent(clientID, ClientStatistics::new);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Topic topic, @Nullable String user, @Nullable String client) {
+        return canWrite(client, System.currentTimeMillis());
+    }
+
+    /**
+     * Counts a publish of the given client against the maximum message rate.
+     *
+     * @param client The client ID
+     * @param now The current time in milliseconds
+     * @return false if the publish exceeds the maximum message rate and must be rejected
+     */
+    boolean canWrite(@Nullable String client, long now) {
+        final int maxClientMessageRate = this.maxClientMessageRate;
+        if (maxClientMessageRate <= 0 || client == null || Constants.CLIENTID.equals(client)) {
+            return true;
+        }
+        ClientStatistics statistics = client(client);
+        if (statistics.messageRate.increment(now) <= maxClientMessageRate) {
+            return true;
+        }
+        if (statistics.rejectedMessages.getAndIncrement() == 0) {
+            // Moquette logs every rejected message on its own, only the cause is logged here
+            logger.warn("MQTT Client {} exceeds {} messages per second. Messages are dropped", client,
+                    maxClientMessageRate);
+        }
+        rejectedMessages.incrementAndGet();
+        return false;
+    }
+
+    @Override
+    public boolean canRead(@Nullable Topic topic, @Nullable String user, @Nullable String client) {
+        return true;
+    }
+
+    @Override
+    public String getID() {
+        return "statistics";
+    }
+
+    @Override
+    public Class<?>[] getInterceptedMessageTypes() {
+        return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class,
+                InterceptConnectionLostMessage.class, InterceptPublishMessage.class };
+    }
+
+    @Override
+    public void onConnect(@Nullable InterceptConnectMessage msg) {
+        if (msg != null) {
+            logger.debug("MQTT Client connected: {}", msg.getClientID());
+            client(msg.getClientID());
+        }
+    }
+
+    @Override
+    public void onConnectionLost(@Nullable InterceptConnectionLostMessage msg) {
+        if (msg != null) {
+            logger.debug("MQTT Client connection lost: {}", msg.getClientID());
+            clients.remove(msg.getClientID());
+        }
+    }
+
+    @Override
+    public void onDisconnect(@Nullable InterceptDisconnectMessage msg) {
+        if (msg != null) {
+            logger.debug("MQTT Client disconnected: {}", msg.getClientID());
+            clients.remove(msg.getClientID());
+        }
+    }
+
+    @Override
+    public void onMessageAcknowledged(@Nullable InterceptAcknowledgedMessage msg) {
+    }
+
+    @Override
+    public void onPublish(@Nullable InterceptPublishMessage msg) {
+        if (msg == null) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        publishedMessages.incrementAndGet();
+        messageRate.increment(now);
+
+        ClientStatistics statistics = client(msg.getClientID());
+        statistics.publishedMessages.incrementAndGet();
+        if (maxClientMessageRate <= 0 || Constants.CLIENTID.equals(msg.getClientID())) {
+            // Otherwise already counted by canWrite()
+            statistics.messageRate.increment(now);
+        }
+
+        if (msg.isRetainFlag()) {
+            final int size = msg.getPayload().readableBytes();
+            if (size == 0) { // An empty retained message removes the retained message of the topic
+                retainedMessages.remove(msg.getTopicName());
+            } else {
+                retainedMessages.put(msg.getTopicName(), size);
+            }
+        }
+    }
+
+    @Override
+    public void onSubscribe(@Nullable InterceptSubscribeMessage msg) {
+    }
+
+    @Override
+    public void onUnsubscribe(@Nullable InterceptUnsubscribeMessage msg) {
+    }
+
+    /**
+     * Forgets all clients. The counters are kept.
+     */
+    public void clearClients() {
+        clients.clear();
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.io.mqttembeddedbroker.internal.BrokerStatistics.ClientStatistics;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console commands to show the runtime statistics of the embedded broker.
+ *
+ * @author agent - Initial contribution
+ */
+@Component(service = ConsoleCommandExtension.class)
+@NonNullByDefault
+public class EmbeddedBrokerCommandExtension extends AbstractConsoleCommandExtension {
+    private static final String SUBCMD_STATISTICS = "statistics";
+    private static final String SUBCMD_CLIENTS = "clients";
+
+    private final EmbeddedBrokerService brokerService;
+
+    @Activate
+    public EmbeddedBrokerCommandExtension(@Reference EmbeddedBrokerService brokerService) {
+        super("mqttbroker", "Show statistics of the embedded MQTT broker.");
+        this.brokerService = brokerService;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 0) {
+            printUsage(console);
+            return;
+        }
+        BrokerStatistics statistics = brokerService.getStatistics();
+        switch (args[0]) {
+            case SUBCMD_STATISTICS:
+                console.println("Connected clients: " + statistics.getClients().size());
+                console.println("Published messages: " + statistics.getPublishedMessages());
+                console.println("Messages per second: " + statistics.getMessagesPerSecond());
+                console.println("Rejected messages: " + statistics.getRejectedMessages());
+                console.println("Retained messages: " + statistics.getRetainedMessages() + " ("
+                        + statistics.getRetainedBytes() + " bytes)");
+                int maxRate = statistics.getMaxClientMessageRate();
+                console.println("Max messages per second per client: " + (maxRate > 0 ? maxRate : "unlimited"));
+                break;
+            case SUBCMD_CLIENTS:
+                for (ClientStatistics client : statistics.getClients().values()) {
+                    console.println(String.format("%s: %d messages, %d/s, %d rejected", client.getClientID(),
+                            client.getPublishedMessages(), client.getMessagesPerSecond(),
+                            client.getRejectedMessages()));
+                }
+                break;
+            default:
+                console.println("Unknown command '" + args[0] + "'");
+                printUsage(console);
+                break;
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(buildCommandUsage(SUBCMD_STATISTICS, "shows the broker statistics"),
+                buildCommandUsage(SUBCMD_CLIENTS, "lists the connected clients and their message rates"));
+    }
+}
@@ -55,14 +55,6 @@ import io.moquette.broker.Server;
 import io.moquette.broker.config.MemoryConfig;
 import io.moquette.broker.security.IAuthenticator;
 import io.moquette.broker.security.IAuthorizatorPolicy;
-import io.moquette.interception.InterceptHandler;
-import io.moquette.interception.messages.InterceptAcknowledgedMessage;
-import io.moquette.interception.messages.InterceptConnectMessage;
-import io.moquette.interception.messages.InterceptConnectionLostMessage;
-import io.moquette.interception.messages.InterceptDisconnectMessage;
-import io.moquette.interception.messages.InterceptPublishMessage;
-import io.moquette.interception.messages.InterceptSubscribeMessage;
-import io.moquette.interception.messages.InterceptUnsubscribeMessage;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 
@@ -87,59 +79,10 @@ public class EmbeddedBrokerService
     private String persistenceFilename = "";
     // private NetworkServerTls networkServerTls; //TODO wait for NetworkServerTls implementation
 
-    @NonNullByDefault({})
-    class BrokerMetricsListenerEx implements InterceptHandler {
-
-        @Override
-        public String getID() {
-            return "logger";
-        }
-
-        @Override
-        public Class<?>[] getInterceptedMessageTypes() {
-            return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class };
-        }
-
-        @Override
-        public void onConnect(InterceptConnectMessage arg0) {
-            logger.debug("MQTT Client connected: {}", arg0.getClientID());
-        }
-
-        @Override
-        public void onConnectionLost(InterceptConnectionLostMessage arg0) {
-
-        }
-
-        @Override
-        public void onDisconnect(InterceptDisconnectMessage arg0) {
-            logger.debug("MQTT Client disconnected: {}", arg0.getClientID());
-        }
-
-        @Override
-        public void onMessageAcknowledged(InterceptAcknowledgedMessage arg0) {
-
-        }
-
-        @Override
-        public void onPublish(InterceptPublishMessage arg0) {
-
-        }
-
-        @Override
-        public void onSubscribe(InterceptSubscribeMessage arg0) {
-
-        }
-
-        @Override
-        public void onUnsubscribe(InterceptUnsubscribeMessage arg0) {
-
-        }
-    }
-
     protected @Nullable Server server;
     private final Logger logger = LoggerFactory.getLogger(EmbeddedBrokerService.class);
     protected MqttEmbeddedBrokerDetectStart detectStart = new MqttEmbeddedBrokerDetectStart(this);
-    protected BrokerMetricsListenerEx metrics = new BrokerMetricsListenerEx();
+    protected BrokerStatistics statistics = new BrokerStatistics();
 
     private @Nullable MqttBrokerConnection connection;
 
@@ -186,6 +129,8 @@ public class EmbeddedBrokerService
             logger.info("Using in-memory persistence. No persistence file has been set!");
         }
 
+        statistics.setMaxClientMessageRate(config.maxClientMessageRate);
+
         // Start embedded server
         startEmbeddedServer(port, config.secure, config.username, config.password);
     }
@@ -199,6 +144,7 @@ public class EmbeddedBrokerService
         if (connection == null) {
             if (server != null) {
                 server.stopServer();
+                saveRetainedStatistics();
             }
             server = null;
             return;
@@ -211,6 +157,7 @@ public class EmbeddedBrokerService
                 if (server != null) {
                     server.stopServer();
                     server = null;
+                    saveRetainedStatistics();
                 }
             }).get(10, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
@@ -296,10 +243,11 @@ public class EmbeddedBrokerService
             properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, "30"); // in seconds
         }
 
-        // We may provide ACL functionality at some point as well
-        IAuthorizatorPolicy authorizer = null;
+        // We may provide ACL functionality at some point as well. For now only the message rate is limited.
+        IAuthorizatorPolicy authorizer = statistics;
         ISslContextCreator sslContextCreator = secure ? nettySSLcontextCreator() : null;
 
+        loadRetainedStatistics();
         try {
             server.startServer(new MemoryConfig(properties), null, sslContextCreator, authentificator,
                     authorizer);
@@ -308,13 +256,14 @@ public class EmbeddedBrokerService
                 Path persistenceFilePath = Paths.get((new File(persistenceFilename)).getAbsolutePath());
                 logger.warn("persistence corrupt: {}, deleting {}", e.getMessage(), persistenceFilePath);
                 Files.delete(persistenceFilePath);
+                statistics.clearRetainedMessages();
                 // retry starting broker, if it fails again, don't catch exception
                 server.startServer(new MemoryConfig(properties), null, sslContextCreator, authentificator,
                         authorizer);
             }
         }
         this.server = server;
-        server.addInterceptHandler(metrics);
+        server.addInterceptHandler(statistics);
         ScheduledExecutorService s = new ScheduledThreadPoolExecutor(1);
         detectStart.startBrokerStartedDetection(port, s);
     }
@@ -322,10 +271,52 @@ public class EmbeddedBrokerService
     public void stopEmbeddedServer() {
         Server server = this.server;
         if (server != null) {
-            server.removeInterceptHandler(metrics);
+            server.removeInterceptHandler(statistics);
             detectStart.stopBrokerStartDetection();
             server.stopServer();
             this.server = null;
+            statistics.clearClients();
+            saveRetainedStatistics();
+        }
+    }
+
+    /**
+     * Returns the file next to the persistence file, that stores the sizes of the retained messages.
+     */
+    private @Nullable Path retainedStatisticsFile() {
+        return persistenceFilename.isEmpty() ? null
+                : Paths.get(new File(persistenceFilename).getAbsolutePath() + ".statistics");
+    }
+
+    /**
+     * Loads the sizes of the retained messages, that the broker loads from the persistence file.
+     */
+    private void loadRetainedStatistics() {
+        Path file = retainedStatisticsFile();
+        if (file == null || !Files.exists(Paths.get(new File(persistenceFilename).getAbsolutePath()))) {
+            statistics.clearRetainedMessages();
+            return;
+        }
+        try {
+            statistics.loadRetainedMessages(file);
+        } catch (IOException e) {
+            logger.warn("Could not load the retained message statistics from {}: {}", file, e.getMessage());
+            statistics.clearRetainedMessages();
+        }
+    }
+
+    /**
+     * Stores the sizes of the retained messages, that the broker stored in the persistence file.
+     */
+    private void saveRetainedStatistics() {
+        Path file = retainedStatisticsFile();
+        if (file == null) {
+            return;
+        }
+        try {
+            statistics.saveRetainedMessages(file);
+        } catch (IOException e) {
+            logger.warn("Could not store the retained message statistics in {}: {}", file, e.getMessage());
         }
     }
 
@@ -379,6 +370,13 @@ public class EmbeddedBrokerService
         });
     }
 
+    /**
+     * Returns the runtime statistics of the embedded broker.
+     */
+    public BrokerStatistics getStatistics() {
+        return statistics;
+    }
+
     public @Nullable MqttBrokerConnection getConnection() {
         return connection;
     }
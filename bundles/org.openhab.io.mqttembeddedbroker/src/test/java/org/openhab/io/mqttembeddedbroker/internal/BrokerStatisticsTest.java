@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.io.mqttembeddedbroker.Constants;
+
+import io.moquette.broker.subscriptions.Topic;
+
+/**
+ * Tests the message rate limit and the retained message statistics of the {@link BrokerStatistics}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BrokerStatisticsTest {
+    private final Topic topic = new Topic("test/topic");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void unlimitedByDefault() {
+        BrokerStatistics statistics = new BrokerStatistics();
+        for (int i = 0; i < 1000; ++i) {
+            assertTrue(statistics.canWrite(topic, null, "client"));
+        }
+        assertThat(statistics.getRejectedMessages(), is(0L));
+    }
+
+    @Test
+    public void rejectsMessagesAboveRate() {
+        BrokerStatistics statistics = new BrokerStatistics();
+        statistics.setMaxClientMessageRate(5);
+
+        int accepted = 0;
+        for (int i = 0; i < 20; ++i) {
+            if (statistics.canWrite(topic, null, "client")) {
+                ++accepted;
+            }
+        }
+        // The test may cross a second boundary
+        assertTrue(accepted >= 5 && accepted <= 10);
+        assertThat(statistics.getRejectedMessages(), is(20L - accepted));
+        assertThat(statistics.getClients().get("client").getRejectedMessages(), is(20L - accepted));
+
+        // Other clients are counted separately
+        assertTrue(statistics.canWrite(topic, null, "other"));
+    }
+
+    @Test
+    public void openHABConnectionIsNotLimited() {
+        BrokerStatistics statistics = new BrokerStatistics();
+        statistics.setMaxClientMessageRate(1);
+        for (int i = 0; i < 100; ++i) {
+            assertTrue(statistics.canWrite(topic, null, Constants.CLIENTID));
+        }
+    }
+
+    @Test
+    public void rateCounter() {
+        BrokerStatistics.RateCounter counter = new BrokerStatistics.RateCounter();
+        counter.increment(1000);
+        counter.increment(1500);
+        assertThat(counter.getRate(1999), is(0));
+        assertThat(counter.getRate(2000), is(2));
+        assertThat(counter.getRate(3500), is(0));
+    }
+
+    @Test
+    public void rejectedMessagesAreCountedPerSecond() {
+        BrokerStatistics statistics = new BrokerStatistics();
+        statistics.setMaxClientMessageRate(2);
+
+        assertTrue(statistics.canWrite("client", 1000));
+        assertTrue(statistics.canWrite("client", 1100));
+        assertFalse(statistics.canWrite("client", 1200));
+        assertFalse(statistics.canWrite("client", 1999));
+        assertTrue(statistics.canWrite("other", 1999));
+        // The limit applies again within the next second
+        assertTrue(statistics.canWrite("client", 2000));
+        assertTrue(statistics.canWrite("client", 2500));
+        assertFalse(statistics.canWrite("client", 2600));
+
+        assertThat(statistics.getRejectedMessages(), is(3L));
+        assertThat(statistics.getClients().get("client").getRejectedMessages(), is(3L));
+        assertThat(statistics.getClients().get("other").getRejectedMessages(), is(0L));
+    }
+
+    @Test
+    public void retainedMessagesAreSavedAndLoaded() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("mqttembedded.bin.statistics");
+        BrokerStatistics statistics = new BrokerStatistics();
+        statistics.loadRetainedMessages(file);
+        assertThat(statistics.getRetainedMessages(), is(0));
+
+        Files.write(file, "a/topic=10\nanother/topic=5\ninvalid/topic=x\n".getBytes());
+        statistics.loadRetainedMessages(file);
+        assertThat(statistics.getRetainedMessages(), is(2));
+        assertThat(statistics.getRetainedBytes(), is(15L));
+
+        Path copy = folder.getRoot().toPath().resolve("copy.statistics");
+        statistics.saveRetainedMessages(copy);
+        BrokerStatistics loaded = new BrokerStatistics();
+        loaded.loadRetainedMessages(copy);
+        assertThat(loaded.getRetainedMessages(), is(2));
+        assertThat(loaded.getRetainedBytes(), is(15L));
+
+        loaded.clearRetainedMessages();
+        assertThat(loaded.getRetainedMessages(), is(0));
+    }
+}
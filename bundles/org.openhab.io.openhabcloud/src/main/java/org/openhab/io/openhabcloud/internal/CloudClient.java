@@ -22,9 +22,12 @@ import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jetty.client.HttpClient;
@@ -67,6 +70,18 @@ import io.socket.engineio.client.Transport;
  */
 
 public class CloudClient {
+    private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
+
+    /*
+     * Item updates are collected for this time and then sent at once
+     */
+    private static final int ITEM_UPDATE_DELAY_MSECS = 100;
+
+    /*
+     * The maximum number of items with a pending update. If exceeded, the oldest update is dropped.
+     */
+    private static final int MAX_PENDING_ITEM_UPDATES = 1000;
+
     /*
      * Logger for this class
      */
@@ -105,7 +120,7 @@ public class CloudClient {
     /*
      * This variable indicates if connection to the openHAB Cloud is currently in an established state
      */
-    private boolean isConnected;
+    private volatile boolean isConnected;
 
     /*
      * This variable holds version of local openHAB
@@ -131,6 +146,20 @@ public class CloudClient {
     private boolean remoteAccessEnabled;
     private Set<String> exposedItems;
 
+    /*
+     * Item updates not yet sent to the openHAB Cloud, with the item name as key. Only the latest state of each item
+     * is kept. Updates are kept while the connection is down.
+     */
+    private final LinkedHashMap<String, String> pendingItemUpdates = new LinkedHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> itemUpdateJob;
+    private long droppedItemUpdates;
+
+    /*
+     * The last item states sent to the openHAB Cloud, to not send an unchanged state again
+     */
+    private final Map<String, String> sentItemStates = new HashMap<>();
+
     /**
      * Constructor of CloudClient
      *
@@ -141,6 +170,15 @@ public class CloudClient {
      */
     public CloudClient(HttpClient httpClient, String uuid, String secret, String baseURL, String localBaseUrl,
             boolean remoteAccessEnabled, Set<String> exposedItems) {
+        this(httpClient, uuid, secret, baseURL, localBaseUrl, remoteAccessEnabled, exposedItems,
+                ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD));
+    }
+
+    /**
+     * Constructor of CloudClient with the scheduler for sending item updates
+     */
+    CloudClient(HttpClient httpClient, String uuid, String secret, String baseURL, String localBaseUrl,
+            boolean remoteAccessEnabled, Set<String> exposedItems, ScheduledExecutorService scheduler) {
         this.uuid = uuid;
         this.secret = secret;
         this.baseURL = baseURL;
@@ -149,6 +187,7 @@ public class CloudClient {
         this.exposedItems = exposedItems;
         runningRequests = new HashMap<Integer, Request>();
         this.jettyClient = httpClient;
+        this.scheduler = scheduler;
     }
 
     /**
@@ -157,7 +196,7 @@ public class CloudClient {
 
     public void connect() {
         try {
-            socket = IO.socket(baseURL);
+            socket = createSocket(baseURL);
             URL parsed = new URL(baseURL);
             protocol = parsed.getProtocol();
         } catch (URISyntaxException e) {
@@ -224,6 +263,13 @@ public class CloudClient {
         socket.connect();
     }
 
+    /**
+     * Creates the Socket.IO client for the given URL
+     */
+    protected Socket createSocket(String baseURL) throws URISyntaxException {
+        return IO.socket(baseURL);
+    }
+
     /**
      * Callback method for socket.io client which is called when connection is established
      */
@@ -231,6 +277,17 @@ public class CloudClient {
     public void onConnect() {
         logger.info("Connected to the openHAB Cloud service (UUID = {}, base URL = {})", this.uuid, this.localBaseUrl);
         isConnected = true;
+        synchronized (sentItemStates) {
+            // The cloud may have lost the states in the meantime
+            sentItemStates.clear();
+        }
+        synchronized (pendingItemUpdates) {
+            if (!pendingItemUpdates.isEmpty()) {
+                logger.debug("Sending {} item updates queued while disconnected ({} dropped)",
+                        pendingItemUpdates.size(), droppedItemUpdates);
+                scheduleItemUpdates();
+            }
+        }
     }
 
     /**
@@ -469,28 +526,95 @@ public class CloudClient {
     }
 
     /**
-     * Send item update to openHAB Cloud
+     * Send item update to openHAB Cloud. Updates are collected for a short time and sent at once, only the latest
+     * state of each item is sent. If there is no connection, the updates are kept until the connection is
+     * established again. If more than {@value #MAX_PENDING_ITEM_UPDATES} items have a pending update, the oldest
+     * update is dropped.
      *
      * @param itemName the name of the item
      * @param itemState updated item state
      *
      */
     public void sendItemUpdate(String itemName, String itemState) {
-        if (isConnected()) {
-            logger.debug("Sending update '{}' for item '{}'", itemState, itemName);
-            JSONObject itemUpdateMessage = new JSONObject();
-            try {
-                itemUpdateMessage.put("itemName", itemName);
-                itemUpdateMessage.put("itemStatus", itemState);
-                socket.emit("itemupdate", itemUpdateMessage);
-            } catch (JSONException e) {
-                logger.debug("{}", e.getMessage());
+        synchronized (pendingItemUpdates) {
+            if (pendingItemUpdates.size() >= MAX_PENDING_ITEM_UPDATES && !pendingItemUpdates.containsKey(itemName)) {
+                Iterator<String> oldest = pendingItemUpdates.keySet().iterator();
+                logger.debug("Too many pending item updates, dropping update for item '{}'", oldest.next());
+                oldest.remove();
+                if (droppedItemUpdates++ == 0) {
+                    logger.warn("More than {} pending item updates, dropping the oldest ones",
+                            MAX_PENDING_ITEM_UPDATES);
+                }
             }
-        } else {
-            logger.debug("No connection, Item update is not sent");
+            pendingItemUpdates.put(itemName, itemState);
+            if (isConnected()) {
+                scheduleItemUpdates();
+            } else {
+                logger.debug("No connection, Item update is queued");
+            }
+        }
+    }
+
+    /**
+     * Returns the number of items with an update that has not been sent yet.
+     */
+    public int getPendingItemUpdates() {
+        synchronized (pendingItemUpdates) {
+            return pendingItemUpdates.size();
         }
     }
 
+    /**
+     * Returns the number of item updates that were dropped, because too many updates were pending.
+     */
+    public long getDroppedItemUpdates() {
+        synchronized (pendingItemUpdates) {
+            return droppedItemUpdates;
+        }
+    }
+
+    private void scheduleItemUpdates() {
+        // Called with the pendingItemUpdates lock held
+        if (itemUpdateJob == null) {
+            itemUpdateJob = scheduler.schedule(this::sendPendingItemUpdates, ITEM_UPDATE_DELAY_MSECS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void sendPendingItemUpdates() {
+        Map<String, String> updates;
+        synchronized (pendingItemUpdates) {
+            itemUpdateJob = null;
+            if (!isConnected()) {
+                // Sent when the connection is established again
+                return;
+            }
+            updates = new LinkedHashMap<>(pendingItemUpdates);
+            pendingItemUpdates.clear();
+        }
+        int unchanged = 0;
+        synchronized (sentItemStates) {
+            for (Map.Entry<String, String> update : updates.entrySet()) {
+                String itemName = update.getKey();
+                String itemState = update.getValue();
+                if (itemState.equals(sentItemStates.put(itemName, itemState))) {
+                    unchanged++;
+                    continue;
+                }
+                JSONObject itemUpdateMessage = new JSONObject();
+                try {
+                    itemUpdateMessage.put("itemName", itemName);
+                    itemUpdateMessage.put("itemStatus", itemState);
+                    socket.emit("itemupdate", itemUpdateMessage);
+                } catch (JSONException e) {
+                    logger.debug("{}", e.getMessage());
+                }
+            }
+        }
+        logger.debug("Sent {} item updates, {} unchanged states skipped, {} updates pending",
+                updates.size() - unchanged, unchanged, getPendingItemUpdates());
+    }
+
     /**
      * Returns true if openHAB Cloud connection is active
      */
@@ -503,6 +627,13 @@ public class CloudClient {
      */
     public void shutdown() {
         logger.info("Shutting down openHAB Cloud service connection");
+        synchronized (pendingItemUpdates) {
+            if (itemUpdateJob != null) {
+                itemUpdateJob.cancel(false);
+                itemUpdateJob = null;
+            }
+            pendingItemUpdates.clear();
+        }
         socket.disconnect();
     }
 
@@ -524,7 +655,6 @@ public class CloudClient {
     private class ResponseListener
             implements Response.CompleteListener, HeadersListener, ContentListener, FailureListener {
 
-        private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
         private int mRequestId;
         private boolean mHeadersSent = false;
 
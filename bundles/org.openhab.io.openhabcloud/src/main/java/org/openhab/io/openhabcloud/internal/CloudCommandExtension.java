@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console commands for the openHAB Cloud connector
+ *
+ * @author agent - Initial contribution
+ */
+@Component(service = ConsoleCommandExtension.class)
+public class CloudCommandExtension extends AbstractConsoleCommandExtension {
+    private static final String SUBCMD_STATUS = "status";
+
+    private CloudService cloudService;
+
+    public CloudCommandExtension() {
+        super("openhabcloud", "Show the state of the openHAB Cloud connection.");
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 1 && SUBCMD_STATUS.equals(args[0])) {
+            console.println("Connected: " + cloudService.isConnected());
+            console.println("Pending item updates: " + cloudService.getPendingItemUpdates());
+            console.println("Dropped item updates: " + cloudService.getDroppedItemUpdates());
+        } else {
+            printUsage(console);
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(new String[] { buildCommandUsage(SUBCMD_STATUS,
+                "shows the connection state and the number of pending and dropped item updates") });
+    }
+
+    @Reference
+    public void setCloudService(CloudService cloudService) {
+        this.cloudService = cloudService;
+    }
+
+    public void unsetCloudService(CloudService cloudService) {
+        this.cloudService = null;
+    }
+}
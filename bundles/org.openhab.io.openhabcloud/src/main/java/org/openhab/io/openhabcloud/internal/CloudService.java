@@ -71,7 +71,7 @@ import org.slf4j.LoggerFactory;
  * @author Victor Belov - Initial contribution
  * @author Kai Kreuzer - migrated code to new Jetty client and ESH APIs
  */
-@Component(immediate = true, service = { EventSubscriber.class,
+@Component(immediate = true, service = { CloudService.class, EventSubscriber.class,
         ActionService.class }, configurationPid = "org.openhab.openhabcloud", property = {
                 Constants.SERVICE_PID + "=org.openhab.openhabcloud",
                 ConfigurableService.SERVICE_PROPERTY_DESCRIPTION_URI + "=io:openhabcloud",
@@ -244,6 +244,30 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
         NotificationAction.cloudService = this;
     }
 
+    /**
+     * Returns true if the connection to the openHAB Cloud is established
+     */
+    public boolean isConnected() {
+        CloudClient cloudClient = this.cloudClient;
+        return cloudClient != null && cloudClient.isConnected();
+    }
+
+    /**
+     * Returns the number of items with an update that has not been sent to the openHAB Cloud yet
+     */
+    public int getPendingItemUpdates() {
+        CloudClient cloudClient = this.cloudClient;
+        return cloudClient == null ? 0 : cloudClient.getPendingItemUpdates();
+    }
+
+    /**
+     * Returns the number of item updates that were dropped, because too many updates were pending
+     */
+    public long getDroppedItemUpdates() {
+        CloudClient cloudClient = this.cloudClient;
+        return cloudClient == null ? 0 : cloudClient.getDroppedItemUpdates();
+    }
+
     @Override
     public String getActionClassName() {
         return NotificationAction.class.getCanonicalName();
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.socket.client.Socket;
+import io.socket.emitter.Emitter;
+
+/**
+ * Tests the queuing of item updates by the {@link CloudClient} with a mocked Socket.IO client.
+ *
+ * @author agent - Initial contribution
+ */
+public class CloudClientTest {
+    private ScheduledExecutorService scheduler;
+    private Socket socket;
+    private CloudClient client;
+
+    @Before
+    public void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+        socket = mock(Socket.class, RETURNS_DEEP_STUBS);
+        client = new CloudClient(mock(HttpClient.class), "uuid", "secret", "https://myopenhab.org/",
+                "http://localhost:8080", false, Collections.emptySet(), scheduler) {
+            @Override
+            protected Socket createSocket(String baseURL) {
+                return socket;
+            }
+        };
+        client.connect();
+    }
+
+    /**
+     * Simulates the established connection by calling the connect listener registered at the socket.
+     */
+    private void connectSocket() {
+        ArgumentCaptor<Emitter.Listener> captor = ArgumentCaptor.forClass(Emitter.Listener.class);
+        verify(socket).on(eq(Socket.EVENT_CONNECT), captor.capture());
+        captor.getValue().call();
+    }
+
+    /**
+     * Verifies how often the item updates have been scheduled and runs the last scheduled job.
+     */
+    private void runScheduled(int expectedTimes) {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(expectedTimes)).schedule(captor.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        captor.getValue().run();
+    }
+
+    /**
+     * Returns the "itemName=itemStatus" pairs of all item updates sent.
+     */
+    private List<String> sentItemUpdates(int expectedTimes) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(socket, times(expectedTimes)).emit(eq("itemupdate"), captor.capture());
+        return captor.getAllValues().stream().map(JSONObject.class::cast)
+                .map(json -> json.getString("itemName") + "=" + json.getString("itemStatus"))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void updatesAreQueuedWhileDisconnected() {
+        client.sendItemUpdate("item", "ON");
+        client.sendItemUpdate("item", "OFF");
+        client.sendItemUpdate("other", "1");
+
+        verifyZeroInteractions(scheduler);
+        sentItemUpdates(0);
+        assertThat(client.getPendingItemUpdates(), is(2));
+        assertThat(client.getDroppedItemUpdates(), is(0L));
+    }
+
+    @Test
+    public void oldestUpdateIsDroppedAboveLimit() {
+        for (int i = 0; i <= 1000; i++) {
+            client.sendItemUpdate("item" + i, "ON");
+        }
+        assertThat(client.getPendingItemUpdates(), is(1000));
+        assertThat(client.getDroppedItemUpdates(), is(1L));
+
+        // An update of an item with a pending update replaces it
+        client.sendItemUpdate("item1000", "OFF");
+        assertThat(client.getPendingItemUpdates(), is(1000));
+        assertThat(client.getDroppedItemUpdates(), is(1L));
+
+        connectSocket();
+        runScheduled(1);
+
+        List<String> sent = sentItemUpdates(1000);
+        assertThat(sent.get(0), is("item1=ON"));
+        assertThat(sent.get(999), is("item1000=OFF"));
+        assertThat(client.getPendingItemUpdates(), is(0));
+    }
+
+    @Test
+    public void queuedUpdatesAreSentOnConnect() {
+        client.sendItemUpdate("item", "ON");
+        client.sendItemUpdate("item", "OFF");
+        client.sendItemUpdate("other", "1");
+
+        connectSocket();
+        runScheduled(1);
+
+        assertThat(sentItemUpdates(2), is(Arrays.asList("item=OFF", "other=1")));
+        assertThat(client.getPendingItemUpdates(), is(0));
+    }
+
+    @Test
+    public void unchangedStatesAreSkipped() {
+        connectSocket();
+        client.sendItemUpdate("item", "ON");
+        runScheduled(1);
+        assertThat(sentItemUpdates(1), is(Arrays.asList("item=ON")));
+
+        client.sendItemUpdate("item", "ON");
+        runScheduled(2);
+        sentItemUpdates(1);
+
+        client.sendItemUpdate("item", "OFF");
+        runScheduled(3);
+        assertThat(sentItemUpdates(2), is(Arrays.asList("item=ON", "item=OFF")));
+    }
+
+    @Test
+    public void statesAreSentAgainAfterReconnect() {
+        connectSocket();
+        client.sendItemUpdate("item", "ON");
+        runScheduled(1);
+
+        // The cloud may have lost the states while disconnected
+        client.onDisconnect();
+        client.onConnect();
+        client.sendItemUpdate("item", "ON");
+        runScheduled(2);
+
+        assertThat(sentItemUpdates(2), is(Arrays.asList("item=ON", "item=ON")));
+    }
+}
@@ -13,9 +13,6 @@
 package org.openhab.io.transport.modbus;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Optional;
 
@@ -101,117 +98,187 @@ public class ModbusBitUtilities {
      */
     public static Optional<DecimalType> extractStateFromRegisters(ModbusRegisterArray registers, int index,
             ModbusConstants.ValueType type) {
-        int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
-        // each register has 16 bits
-        int lastValidIndex = registers.size() * 16 - 1;
-        if (endBitIndex > lastValidIndex || index < 0) {
-            throw new IllegalArgumentException(
-                    String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
-                            registers.size()));
-        }
         switch (type) {
-            case BIT:
-                return Optional
-                        .of(new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1));
-            case INT8:
-                return Optional.of(new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]));
-            case UINT8:
-                return Optional.of(new DecimalType(
-                        (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff));
-            case INT16: {
-                ByteBuffer buff = ByteBuffer.allocate(2);
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0)));
-            }
-            case UINT16:
-                return Optional.of(new DecimalType(registers.getRegister(index).toUnsignedShort()));
-            case INT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case FLOAT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
-                    // floating point NaN or infinity encountered
-                    return Optional.empty();
-                }
-            }
-            case INT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
-            case INT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
+            case FLOAT32:
             case FLOAT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
+                float value = extractFloat(registers, index, type);
+                if (Float.isNaN(value) || Float.isInfinite(value)) {
                     // floating point NaN or infinity encountered
                     return Optional.empty();
                 }
+                return Optional.of(new DecimalType(value));
             }
-            case INT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
+            case UINT64:
+            case UINT64_SWAP: {
+                long value = extractLong(registers, index, type);
+                return Optional.of(value >= 0 ? new DecimalType(value)
+                        : new DecimalType(new BigDecimal(Long.toUnsignedString(value))));
             }
+            default:
+                return Optional.of(new DecimalType(extractLong(registers, index, type)));
+        }
+    }
+
+    /**
+     * Read integer data from registers without any intermediate objects
+     *
+     * Interpretation of <tt>index</tt> and <tt>type</tt> is the same as with
+     * {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index
+     * @param type item type. Only types fitting to <tt>int</tt> are supported, that is, types up to 16 bits,
+     *            INT32 and INT32_SWAP
+     * @return the value
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers, or the type does not fit to
+     *             <tt>int</tt>
+     */
+    public static int extractInt(ModbusRegisterArray registers, int index, ModbusConstants.ValueType type) {
+        switch (type) {
+            case BIT:
+            case INT8:
+            case UINT8:
+            case INT16:
+            case UINT16:
+            case INT32:
+            case INT32_SWAP:
+                return (int) extractLong(registers, index, type);
+            default:
+                throw new IllegalArgumentException(
+                        String.format("Type=%s does not fit to 32 bit signed integer", type.getConfigValue()));
+        }
+    }
+
+    /**
+     * Read integer data from registers without any intermediate objects
+     *
+     * Interpretation of <tt>index</tt> and <tt>type</tt> is the same as with
+     * {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index
+     * @param type item type, any of the integer types. With UINT64 and UINT64_SWAP, the 64 bits are returned as is,
+     *            use e.g. {@link Long#toUnsignedString(long)} to interpret the value.
+     * @return the value
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers, or with floating point types
+     */
+    public static long extractLong(ModbusRegisterArray registers, int index, ModbusConstants.ValueType type) {
+        checkBounds(registers, index, type);
+        switch (type) {
+            case BIT:
+                return (registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1;
+            case INT8:
+                return (byte) (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2)));
+            case UINT8:
+                return (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff;
+            case INT16:
+                return (short) registers.getRegister(index).toUnsignedShort();
+            case UINT16:
+                return registers.getRegister(index).toUnsignedShort();
+            case INT32:
+                return int32(registers, index, index + 1);
+            case UINT32:
+                return int32(registers, index, index + 1) & 0xffffffffL;
+            case INT32_SWAP:
+                return int32(registers, index + 1, index);
+            case UINT32_SWAP:
+                return int32(registers, index + 1, index) & 0xffffffffL;
+            case INT64:
+            case UINT64:
+                return int64(registers, index, index + 1, index + 2, index + 3);
+            case INT64_SWAP:
+            case UINT64_SWAP:
+                return int64(registers, index + 3, index + 2, index + 1, index);
+            default:
+                throw new IllegalArgumentException(
+                        String.format("Type=%s is not an integer type", type.getConfigValue()));
+        }
+    }
+
+    /**
+     * Read floating point data from registers without any intermediate objects
+     *
+     * Interpretation of <tt>index</tt> and <tt>type</tt> is the same as with
+     * {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based register index
+     * @param type FLOAT32 or FLOAT32_SWAP
+     * @return the value, possibly NaN or infinity
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers, or with other than floating
+     *             point types
+     */
+    public static float extractFloat(ModbusRegisterArray registers, int index, ModbusConstants.ValueType type) {
+        checkBounds(registers, index, type);
+        switch (type) {
+            case FLOAT32:
+                return Float.intBitsToFloat(int32(registers, index, index + 1));
+            case FLOAT32_SWAP:
+                return Float.intBitsToFloat(int32(registers, index + 1, index));
+            default:
+                throw new IllegalArgumentException(
+                        String.format("Type=%s is not a floating point type", type.getConfigValue()));
+        }
+    }
+
+    /**
+     * Read data of any numeric type from registers without any intermediate objects
+     *
+     * Interpretation of <tt>index</tt> and <tt>type</tt> is the same as with
+     * {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}. Note that 64 bit
+     * integers cannot be represented exactly with <tt>double</tt>.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index
+     * @param type item type
+     * @return the value, possibly NaN or infinity with floating point types
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static double extractDouble(ModbusRegisterArray registers, int index, ModbusConstants.ValueType type) {
+        switch (type) {
+            case FLOAT32:
+            case FLOAT32_SWAP:
+                return extractFloat(registers, index, type);
+            case UINT64:
             case UINT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
+                long value = extractLong(registers, index, type);
+                // halve the unsigned value (keeping the lowest bit for correct rounding) and double it back
+                return value >= 0 ? value : ((value >>> 1) | (value & 1)) * 2.0;
             }
             default:
-                throw new IllegalArgumentException(type.getConfigValue());
+                return extractLong(registers, index, type);
         }
     }
 
+    private static void checkBounds(ModbusRegisterArray registers, int index, ModbusConstants.ValueType type) {
+        int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
+        // each register has 16 bits
+        int lastValidIndex = registers.size() * 16 - 1;
+        if (endBitIndex > lastValidIndex || index < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
+                            registers.size()));
+        }
+    }
+
+    /**
+     * 32 bit integer from two registers, first register containing the most significant bits
+     */
+    private static int int32(ModbusRegisterArray registers, int highIndex, int lowIndex) {
+        return (registers.getRegister(highIndex).toUnsignedShort() << 16)
+                | registers.getRegister(lowIndex).toUnsignedShort();
+    }
+
+    /**
+     * 64 bit integer from four registers, first register containing the most significant bits
+     */
+    private static long int64(ModbusRegisterArray registers, int index1, int index2, int index3, int index4) {
+        return ((long) registers.getRegister(index1).toUnsignedShort() << 48)
+                | ((long) registers.getRegister(index2).toUnsignedShort() << 32)
+                | ((long) registers.getRegister(index3).toUnsignedShort() << 16)
+                | registers.getRegister(index4).toUnsignedShort();
+    }
+
     /**
      * Read data from registers and convert the result to StringType
      * Strings should start the the first byte of a register, but could
@@ -61,6 +61,19 @@ public class EndpointPoolConfiguration {
      */
     private int connectTimeoutMillis;
 
+    /**
+     * Maximum gap, in registers or bits, between regularly polled requests with the same poll period, slave id and
+     * function code that are merged into a single request. Negative value (default) disables the merging of requests.
+     */
+    private int coalescingMaxGap = -1;
+
+    /**
+     * Maximum number of read requests sent without waiting for the responses of the previous requests (pipelining).
+     * The responses are matched with the requests using the transaction id. Only applicable to TCP endpoints. Default
+     * of 1 means that the next request is sent only after the response to the previous one has been received.
+     */
+    private int pipelineMaxInFlight = 1;
+
     private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
 
     static {
@@ -107,10 +120,27 @@ public class EndpointPoolConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getCoalescingMaxGap() {
+        return coalescingMaxGap;
+    }
+
+    public void setCoalescingMaxGap(int coalescingMaxGap) {
+        this.coalescingMaxGap = coalescingMaxGap;
+    }
+
+    public int getPipelineMaxInFlight() {
+        return pipelineMaxInFlight;
+    }
+
+    public void setPipelineMaxInFlight(int pipelineMaxInFlight) {
+        this.pipelineMaxInFlight = pipelineMaxInFlight;
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder(2149, 3117).append(interTransactionDelayMillis).append(interConnectDelayMillis)
-                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis).toHashCode();
+                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis)
+                .append(coalescingMaxGap).append(pipelineMaxInFlight).toHashCode();
     }
 
     @Override
@@ -119,7 +149,8 @@ public class EndpointPoolConfiguration {
                 .append("interTransactionDelayMillis", interTransactionDelayMillis)
                 .append("interConnectDelayMillis", interConnectDelayMillis).append("connectMaxTries", connectMaxTries)
                 .append("reconnectAfterMillis", reconnectAfterMillis)
-                .append("connectTimeoutMillis", connectTimeoutMillis).toString();
+                .append("connectTimeoutMillis", connectTimeoutMillis).append("coalescingMaxGap", coalescingMaxGap)
+                .append("pipelineMaxInFlight", pipelineMaxInFlight).toString();
     }
 
     @Override
@@ -137,7 +168,9 @@ public class EndpointPoolConfiguration {
         return new EqualsBuilder().append(interTransactionDelayMillis, rhs.interTransactionDelayMillis)
                 .append(interConnectDelayMillis, rhs.interConnectDelayMillis)
                 .append(connectMaxTries, rhs.connectMaxTries).append(reconnectAfterMillis, rhs.reconnectAfterMillis)
-                .append(connectTimeoutMillis, rhs.connectTimeoutMillis).isEquals();
+                .append(connectTimeoutMillis, rhs.connectTimeoutMillis)
+                .append(coalescingMaxGap, rhs.coalescingMaxGap)
+                .append(pipelineMaxInFlight, rhs.pipelineMaxInFlight).isEquals();
     }
 
 }
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusSlaveErrorResponseException;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * {@link PollTask} reading the combined range of several poll tasks with a single request.
+ *
+ * The task acts as its own callback: the response is sliced and handed over to the callbacks of the
+ * original tasks, together with their original requests. Errors are forwarded to all of them, unless an exception
+ * response handler is set (see {@link #setExceptionResponseHandler(Consumer)}).
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class CoalescedPollTask implements PollTask, ModbusReadCallback {
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final ModbusReadRequestBlueprint request;
+    private final List<PollTask> tasks;
+    @Nullable
+    private volatile Consumer<CoalescedPollTask> exceptionResponseHandler;
+
+    /**
+     * Construct task reading the range from the first register/bit to the last register/bit of the given tasks
+     *
+     * @param tasks poll tasks sharing endpoint, unit id, function code and max tries, sorted by reference
+     */
+    public CoalescedPollTask(List<PollTask> tasks) {
+        if (tasks.isEmpty()) {
+            throw new IllegalArgumentException("At least one task required");
+        }
+        ModbusReadRequestBlueprint first = tasks.get(0).getRequest();
+        int start = first.getReference();
+        int end = tasks.stream().mapToInt(task -> task.getRequest().getReference() + task.getRequest().getDataLength())
+                .max().getAsInt();
+        this.endpoint = tasks.get(0).getEndpoint();
+        this.request = new BasicModbusReadRequestBlueprint(first.getUnitID(), first.getFunctionCode(), start,
+                end - start, first.getMaxTries());
+        this.tasks = Collections.unmodifiableList(tasks);
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public ModbusReadCallback getCallback() {
+        return this;
+    }
+
+    /**
+     * Returns the poll tasks served by this task
+     */
+    public List<PollTask> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Set handler for explicit exception responses of the slave to the merged request
+     *
+     * The slave might respond with an exception since the merged request includes registers/bits between the
+     * original requests that the slave does not support. With a handler, such errors are not forwarded to the
+     * callbacks of the original tasks, the handler is expected to execute them separately instead.
+     *
+     * @param exceptionResponseHandler handler called with this task, or null to forward the errors
+     */
+    public void setExceptionResponseHandler(@Nullable Consumer<CoalescedPollTask> exceptionResponseHandler) {
+        this.exceptionResponseHandler = exceptionResponseHandler;
+    }
+
+    @Override
+    public void onRegisters(ModbusReadRequestBlueprint coalescedRequest, ModbusRegisterArray registers) {
+        for (PollTask task : tasks) {
+            ModbusReadCallback callback = task.getCallback();
+            if (callback == null) {
+                continue;
+            }
+            ModbusReadRequestBlueprint taskRequest = task.getRequest();
+            int offset = taskRequest.getReference() - request.getReference();
+            int length = Math.max(0, Math.min(taskRequest.getDataLength(), registers.size() - offset));
+            ModbusRegister[] slice = new ModbusRegister[length];
+            for (int i = 0; i < length; i++) {
+                slice[i] = registers.getRegister(offset + i);
+            }
+            callback.onRegisters(taskRequest, new BasicModbusRegisterArray(slice));
+        }
+    }
+
+    @Override
+    public void onBits(ModbusReadRequestBlueprint coalescedRequest, BitArray bits) {
+        for (PollTask task : tasks) {
+            ModbusReadCallback callback = task.getCallback();
+            if (callback == null) {
+                continue;
+            }
+            ModbusReadRequestBlueprint taskRequest = task.getRequest();
+            int offset = taskRequest.getReference() - request.getReference();
+            int length = Math.max(0, Math.min(taskRequest.getDataLength(), bits.size() - offset));
+            BasicBitArray slice = new BasicBitArray(length);
+            for (int i = 0; i < length; i++) {
+                slice.setBit(i, bits.getBit(offset + i));
+            }
+            callback.onBits(taskRequest, slice);
+        }
+    }
+
+    @Override
+    public void onError(ModbusReadRequestBlueprint coalescedRequest, Exception error) {
+        Consumer<CoalescedPollTask> exceptionResponseHandler = this.exceptionResponseHandler;
+        if (exceptionResponseHandler != null && error instanceof ModbusSlaveErrorResponseException) {
+            exceptionResponseHandler.accept(this);
+            return;
+        }
+        for (PollTask task : tasks) {
+            ModbusReadCallback callback = task.getCallback();
+            if (callback != null) {
+                callback.onError(task.getRequest(), error);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("request", request).append("endpoint", endpoint)
+                .append("tasks", tasks.size()).toString();
+    }
+}
@@ -0,0 +1,392 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queue of the operations of a single endpoint.
+ *
+ * Operations of the endpoint are executed one at a time using the shared executor. After each operation the
+ * dispatcher re-submits itself to the executor, so that an endpoint with slow transactions (e.g. serial slave) does
+ * not occupy more than one thread of the executor, and operations of other endpoints get their turn.
+ *
+ * Priority operations (writes) are executed before the queued regular operations (polls). Regular operations can be
+ * submitted with a key, in which case the operation is not queued again as long as a previous operation with the same
+ * key is still pending, and with a deadline after which the operation is considered stale and dropped without
+ * executing it.
+ *
+ * Operations can be submitted with a batch item, opaque to the dispatcher. When a batch executor is configured,
+ * consecutive regular operations with batch items are handed over to the batch executor together, which can then
+ * execute them more efficiently (e.g. pipelining the requests).
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointDispatcher {
+
+    /**
+     * Operation queued for execution. The future is done once the operation has been executed, dropped or canceled.
+     *
+     * @author agent - Initial contribution
+     */
+    public static class QueuedOperation extends FutureTask<@Nullable Void> implements ScheduledFuture<@Nullable Void> {
+        @Nullable
+        private final Object key;
+        @Nullable
+        private final Object batchItem;
+        private final long queuedNanos;
+        private final long staleAfterNanos;
+
+        @SuppressWarnings("null")
+        private QueuedOperation(@Nullable Object key, @Nullable Object batchItem, Runnable operation,
+                long staleAfterMillis) {
+            super(operation, null);
+            this.key = key;
+            this.batchItem = batchItem;
+            this.queuedNanos = System.nanoTime();
+            this.staleAfterNanos = staleAfterMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(staleAfterMillis) : -1;
+        }
+
+        public @Nullable Object getBatchItem() {
+            return batchItem;
+        }
+
+        /**
+         * Mark the operation done without running it, for operations executed by the batch executor
+         */
+        @SuppressWarnings("null")
+        public void complete() {
+            set(null);
+        }
+
+        private boolean isStale(long nowNanos) {
+            return staleAfterNanos >= 0 && nowNanos - queuedNanos > staleAfterNanos;
+        }
+
+        @Override
+        public long getDelay(@Nullable TimeUnit unit) {
+            // queued operations are executed as soon as possible
+            return 0;
+        }
+
+        @Override
+        public int compareTo(@Nullable Delayed other) {
+            if (other == null) {
+                return 1;
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(EndpointDispatcher.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final Executor executor;
+
+    private final Deque<QueuedOperation> priorityQueue = new ArrayDeque<>();
+    private final Deque<QueuedOperation> regularQueue = new ArrayDeque<>();
+    private final Set<Object> pendingKeys = new HashSet<>();
+    private boolean draining;
+
+    private volatile int maxBatchSize = 1;
+    @Nullable
+    private volatile Consumer<List<QueuedOperation>> batchExecutor;
+
+    // statistics, guarded by this
+    private long executed;
+    private long dropped;
+    private long skipped;
+    private int maxQueueDepth;
+    private long lastWaitNanos;
+    private long maxWaitNanos;
+    private long totalWaitNanos;
+
+    public EndpointDispatcher(ModbusSlaveEndpoint endpoint, Executor executor) {
+        this.endpoint = endpoint;
+        this.executor = executor;
+    }
+
+    /**
+     * Queue operation for execution
+     *
+     * @param operation operation to execute
+     * @param priority whether the operation should be executed before the regular operations
+     * @return future representing the queued operation
+     */
+    public QueuedOperation submit(Runnable operation, boolean priority) {
+        QueuedOperation queued = new QueuedOperation(null, null, operation, -1);
+        enqueue(queued, priority);
+        return queued;
+    }
+
+    /**
+     * Queue regular operation that can be executed in a batch
+     *
+     * @param operation operation to execute, when the operation is not executed in a batch
+     * @param batchItem item passed to the batch executor
+     * @return future representing the queued operation
+     */
+    public QueuedOperation submitBatchable(Runnable operation, Object batchItem) {
+        QueuedOperation queued = new QueuedOperation(null, batchItem, operation, -1);
+        enqueue(queued, false);
+        return queued;
+    }
+
+    /**
+     * Queue regular operation for execution, unless previous operation with the same key is still pending
+     *
+     * @param key key identifying the operation, typically the poll task
+     * @param operation operation to execute
+     * @param staleAfterMillis the operation is dropped if it has not been started within this time. Non-positive
+     *            values disable dropping.
+     * @return future representing the queued operation, or null if the operation was skipped
+     */
+    public @Nullable QueuedOperation submitRegular(Object key, Runnable operation, long staleAfterMillis) {
+        return submitRegular(key, null, operation, staleAfterMillis);
+    }
+
+    /**
+     * Queue regular operation for execution, unless previous operation with the same key is still pending
+     *
+     * @param key key identifying the operation, typically the poll task
+     * @param batchItem item passed to the batch executor, or null if the operation cannot be executed in a batch
+     * @param operation operation to execute, when the operation is not executed in a batch
+     * @param staleAfterMillis the operation is dropped if it has not been started within this time. Non-positive
+     *            values disable dropping.
+     * @return future representing the queued operation, or null if the operation was skipped
+     */
+    public @Nullable QueuedOperation submitRegular(Object key, @Nullable Object batchItem, Runnable operation,
+            long staleAfterMillis) {
+        synchronized (this) {
+            if (!pendingKeys.add(key)) {
+                skipped++;
+                logger.debug("Previous operation {} of endpoint {} is still pending, skipping", key, endpoint);
+                return null;
+            }
+        }
+        QueuedOperation queued = new QueuedOperation(key, batchItem, operation, staleAfterMillis);
+        enqueue(queued, false);
+        return queued;
+    }
+
+    /**
+     * Configure executor for operations with batch items
+     *
+     * The batch executor must either run (see {@link QueuedOperation#run()}) or complete (see
+     * {@link QueuedOperation#complete()}) each of the operations given to it.
+     *
+     * @param maxBatchSize maximum number of operations in a batch. Values less than 2 disable batching.
+     * @param batchExecutor executor for batches, or null to disable batching
+     */
+    public void setBatchExecutor(int maxBatchSize, @Nullable Consumer<List<QueuedOperation>> batchExecutor) {
+        this.maxBatchSize = maxBatchSize;
+        this.batchExecutor = batchExecutor;
+    }
+
+    private void enqueue(QueuedOperation queued, boolean priority) {
+        boolean startDraining = false;
+        synchronized (this) {
+            (priority ? priorityQueue : regularQueue).add(queued);
+            maxQueueDepth = Math.max(maxQueueDepth, getQueueDepthUnsynchronized());
+            if (!draining) {
+                draining = true;
+                startDraining = true;
+            }
+        }
+        if (startDraining) {
+            executor.execute(this::executeNext);
+        }
+    }
+
+    private void executeNext() {
+        List<QueuedOperation> batch = new ArrayList<>();
+        Consumer<List<QueuedOperation>> batchExecutor = this.batchExecutor;
+        int maxBatchSize = batchExecutor == null ? 1 : this.maxBatchSize;
+        synchronized (this) {
+            long now = System.nanoTime();
+            QueuedOperation next = pollNext(now, false);
+            if (next == null) {
+                draining = false;
+                return;
+            }
+            batch.add(next);
+            if (next.batchItem != null) {
+                // take consecutive batchable operations, as long as no priority operations are waiting
+                while (batch.size() < maxBatchSize && priorityQueue.isEmpty()) {
+                    QueuedOperation candidate = pollNext(now, true);
+                    if (candidate == null) {
+                        break;
+                    }
+                    batch.add(candidate);
+                }
+            }
+        }
+
+        boolean more;
+        try {
+            if (batchExecutor != null && batch.size() > 1) {
+                batchExecutor.accept(batch);
+            } else {
+                batch.get(0).run();
+            }
+        } finally {
+            synchronized (this) {
+                for (QueuedOperation operation : batch) {
+                    // no-op unless the batch executor failed to execute the operation
+                    operation.cancel(false);
+                    executed++;
+                    releaseKey(operation);
+                }
+                more = getQueueDepthUnsynchronized() > 0;
+                draining = more;
+            }
+        }
+        if (more) {
+            // go to the end of the executor queue to let the other endpoints proceed
+            executor.execute(this::executeNext);
+        }
+    }
+
+    /**
+     * Take the next operation that is not stale from the queues, priority operations first. Stale operations are
+     * dropped.
+     *
+     * @param batchableOnly take only regular operation with batch item
+     */
+    private @Nullable QueuedOperation pollNext(long now, boolean batchableOnly) {
+        while (true) {
+            QueuedOperation next;
+            if (batchableOnly) {
+                QueuedOperation head = regularQueue.peek();
+                next = head == null || head.batchItem == null ? null : regularQueue.poll();
+            } else {
+                next = priorityQueue.poll();
+                if (next == null) {
+                    next = regularQueue.poll();
+                }
+            }
+            if (next == null) {
+                return null;
+            }
+            if (next.isStale(now)) {
+                dropped++;
+                releaseKey(next);
+                next.cancel(false);
+                logger.debug("Dropping stale operation {} of endpoint {}, waited {} ms in queue", next.key, endpoint,
+                        TimeUnit.NANOSECONDS.toMillis(now - next.queuedNanos));
+                continue;
+            }
+            long waited = now - next.queuedNanos;
+            lastWaitNanos = waited;
+            maxWaitNanos = Math.max(maxWaitNanos, waited);
+            totalWaitNanos += waited;
+            return next;
+        }
+    }
+
+    private void releaseKey(QueuedOperation operation) {
+        Object key = operation.key;
+        if (key != null) {
+            pendingKeys.remove(key);
+        }
+    }
+
+    /**
+     * Cancel all queued operations
+     */
+    public void cancelAll() {
+        synchronized (this) {
+            priorityQueue.forEach(operation -> operation.cancel(false));
+            regularQueue.forEach(operation -> operation.cancel(false));
+            priorityQueue.clear();
+            regularQueue.clear();
+            pendingKeys.clear();
+        }
+    }
+
+    private int getQueueDepthUnsynchronized() {
+        return priorityQueue.size() + regularQueue.size();
+    }
+
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Returns the number of operations waiting for execution
+     */
+    public synchronized int getQueueDepth() {
+        return getQueueDepthUnsynchronized();
+    }
+
+    public synchronized int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public synchronized long getExecutedCount() {
+        return executed;
+    }
+
+    /**
+     * Returns the number of regular operations dropped since they were stale when their turn came
+     */
+    public synchronized long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Returns the number of regular operations not queued since previous operation with the same key was pending
+     */
+    public synchronized long getSkippedCount() {
+        return skipped;
+    }
+
+    public synchronized long getLastWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastWaitNanos);
+    }
+
+    public synchronized long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos);
+    }
+
+    public synchronized long getAverageWaitMillis() {
+        return executed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos / executed);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "EndpointDispatcher [endpoint=" + endpoint + ", queueDepth=" + getQueueDepthUnsynchronized()
+                + ", maxQueueDepth=" + maxQueueDepth + ", executed=" + executed + ", dropped=" + dropped
+                + ", skipped=" + skipped + ", avgWaitMillis="
+                + (executed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos / executed))
+                + ", maxWaitMillis=" + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "]";
+    }
+}
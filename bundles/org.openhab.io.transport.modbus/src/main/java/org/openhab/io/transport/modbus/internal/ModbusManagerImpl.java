@@ -13,8 +13,12 @@
 package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -22,8 +26,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.imageio.IIOException;
@@ -54,6 +58,7 @@ import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpointVisitor;
 import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointDispatcher.QueuedOperation;
 import org.openhab.io.transport.modbus.internal.pooling.ModbusSlaveConnectionFactoryImpl;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -66,9 +71,11 @@ import net.wimpi.modbus.ModbusException;
 import net.wimpi.modbus.ModbusIOException;
 import net.wimpi.modbus.ModbusSlaveException;
 import net.wimpi.modbus.io.ModbusTransaction;
+import net.wimpi.modbus.io.ModbusTransport;
 import net.wimpi.modbus.msg.ModbusRequest;
 import net.wimpi.modbus.msg.ModbusResponse;
 import net.wimpi.modbus.net.ModbusSlaveConnection;
+import net.wimpi.modbus.net.TCPMasterConnection;
 
 /**
  * Main implementation of ModbusManager
@@ -77,6 +84,9 @@ import net.wimpi.modbus.net.ModbusSlaveConnection;
  * important with serial slaves but practice has shown that even many tcp slaves have limited
  * capability to handle many connections at the same time
  *
+ * Operations are queued per endpoint (see {@link EndpointDispatcher}), so that slow endpoints do not block the
+ * operations of other endpoints, and writes are executed before queued polls.
+ *
  * @author Sami Salonen - Initial contribution
  */
 @Component(service = ModbusManager.class, immediate = true, configurationPid = "transport.modbus")
@@ -206,6 +216,44 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Regular poll tasks of an endpoint with the same poll period, executed together so that compatible requests can
+     * be merged.
+     *
+     * @author agent - Initial contribution
+     *
+     */
+    private static class CoalescedPollGroup {
+        private final Entry<ModbusSlaveEndpoint, Long> key;
+        private final Set<PollTask> tasks = new CopyOnWriteArraySet<>();
+        /**
+         * Tasks not merged anymore, since the slave responded with an exception to a merged request including them
+         */
+        private final Set<PollTask> uncoalescibleTasks = new CopyOnWriteArraySet<>();
+        @Nullable
+        private ScheduledFuture<?> future;
+
+        public CoalescedPollGroup(Entry<ModbusSlaveEndpoint, Long> key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Poll task queued for pipelined execution
+     *
+     * @author agent - Initial contribution
+     *
+     */
+    private static class PipelinedPoll {
+        private final PollTask task;
+        private final boolean oneOffTask;
+
+        public PipelinedPoll(PollTask task, boolean oneOffTask) {
+            this.task = task;
+            this.oneOffTask = oneOffTask;
+        }
+    }
+
     private final Logger logger = LoggerFactory.getLogger(ModbusManagerImpl.class);
     private final Logger pollMonitorLogger = LoggerFactory
             .getLogger(ModbusManagerImpl.class.getName() + ".PollMonitor");
@@ -235,16 +283,15 @@ public class ModbusManagerImpl implements ModbusManager {
     private static final String MODBUS_POLLER_CALLBACK_THREAD_POOL_NAME = "modbusManagerCallbackThreadPool";
 
     /**
-     * Log message with WARN level if the task queues exceed this limit.
+     * Log message with WARN level if the queue of an endpoint exceeds this limit.
      *
      * If the queues grow too large, it might be an issue with consumer of the ModbusManager.
      *
      * You can generate large queue by spamming ModbusManager with one-off read or writes (submitOnTimePoll or
      * submitOneTimeWrite).
      *
-     * Note that there is no issue registering many regular polls, those do not "queue" the same way.
-     *
-     * Presumably slow callbacks can increase queue size with callbackThreadPool
+     * Note that there is no issue registering many regular polls, those do not "queue" the same way: a regular poll is
+     * not queued again while the previous execution is still pending.
      */
     private static final long WARN_QUEUE_SIZE = 500;
     private static final long MONITOR_QUEUE_INTERVAL_MILLIS = 10000;
@@ -252,8 +299,6 @@ public class ModbusManagerImpl implements ModbusManager {
     private final PollOperation pollOperation = new PollOperation();
     private final WriteOperation writeOperation = new WriteOperation();
 
-    private volatile long lastQueueMonitorLog = -1;
-
     /**
      * We use connection pool to ensure that only single transaction is ongoing per each endpoint. This is especially
      * important with serial slaves but practice has shown that even many tcp slaves have limited
@@ -268,6 +313,23 @@ public class ModbusManagerImpl implements ModbusManager {
     @Nullable
     private volatile ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Poll periods of the registered regular poll tasks, for registering them again on endpoint configuration change
+     */
+    private final Map<PollTask, Long> regularPollPeriods = new ConcurrentHashMap<>();
+    /**
+     * Poll groups of endpoints with request coalescing enabled, keyed by endpoint and poll period
+     */
+    private final Map<Entry<ModbusSlaveEndpoint, Long>, CoalescedPollGroup> pollGroups = new ConcurrentHashMap<>();
+    private final Map<PollTask, CoalescedPollGroup> coalescedPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Operation queues of the endpoints
+     */
+    private final Map<ModbusSlaveEndpoint, EndpointDispatcher> dispatchers = new ConcurrentHashMap<>();
+    /**
+     * Transaction ids of pipelined requests
+     */
+    private final AtomicInteger pipelineTransactionId = new AtomicInteger();
     /**
      * Executor for requests
      */
@@ -502,7 +564,6 @@ public class ModbusManagerImpl implements ModbusManager {
             return;
         }
 
-        logTaskQueueInfo();
         R request = task.getRequest();
         ModbusSlaveEndpoint endpoint = task.getEndpoint();
         @Nullable
@@ -696,13 +757,12 @@ public class ModbusManagerImpl implements ModbusManager {
         Objects.requireNonNull(executor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off poll task {}", task);
-        ScheduledFuture<?> future = executor.schedule(() -> {
+        return getDispatcher(executor, task.getEndpoint()).submitBatchable(() -> {
             long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
+            logger.debug("Will now execute one-off poll task {}, waited in queue for {}", task,
                     millisInThreadPoolWaiting);
             executeOperation(task, true, pollOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
-        return future;
+        }, new PipelinedPoll(task, true));
     }
 
     @Override
@@ -716,15 +776,24 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Unregistering previous poll task (possibly with different period)");
                 unregisterRegularPoll(task);
             }
+            regularPollPeriods.put(task, pollPeriodMillis);
+            if (getCoalescingMaxGap(task.getEndpoint()) >= 0) {
+                registerCoalescedPoll(executor, task, pollPeriodMillis, initialDelayMillis);
+                return;
+            }
+            EndpointDispatcher dispatcher = getDispatcher(executor, task.getEndpoint());
             ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
-                long started = System.currentTimeMillis();
-                logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
-                        started);
-                executeOperation(task, false, pollOperation);
-                long finished = System.currentTimeMillis();
-                logger.debug(
-                        "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
-                        pollPeriodMillis, task, finished, started, finished - started);
+                // Poll is dropped if it cannot be started before the next one is due
+                dispatcher.submitRegular(task, new PipelinedPoll(task, false), () -> {
+                    long started = System.currentTimeMillis();
+                    logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis,
+                            task, started);
+                    executeOperation(task, false, pollOperation);
+                    long finished = System.currentTimeMillis();
+                    logger.debug(
+                            "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
+                            pollPeriodMillis, task, finished, started, finished - started);
+                }, pollPeriodMillis);
             }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
 
             scheduledPollTasks.put(task, future);
@@ -733,6 +802,188 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Register poll task to the poll group of its endpoint and poll period. The group is scheduled when the first task
+     * is added.
+     */
+    private void registerCoalescedPoll(ScheduledExecutorService executor, PollTask task, long pollPeriodMillis,
+            long initialDelayMillis) {
+        CoalescedPollGroup group = pollGroups.computeIfAbsent(
+                new SimpleImmutableEntry<>(task.getEndpoint(), pollPeriodMillis), CoalescedPollGroup::new);
+        group.tasks.add(task);
+        ScheduledFuture<?> future = group.future;
+        if (future == null) {
+            group.future = future = executor.scheduleWithFixedDelay(() -> executeCoalescedPolls(group),
+                    initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+        }
+        coalescedPollTasks.put(task, group);
+        scheduledPollTasks.put(task, future);
+        logger.trace("Registered poll task {} with period {} to coalesced poll group with {} tasks", task,
+                pollPeriodMillis, group.tasks.size());
+    }
+
+    private void executeCoalescedPolls(CoalescedPollGroup group) {
+        ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+        if (executor == null) {
+            return;
+        }
+        ModbusSlaveEndpoint endpoint = group.key.getKey();
+        long pollPeriodMillis = group.key.getValue();
+        List<PollTask> plannedTasks = PollCoalescingPlanner.plan(group.tasks, getCoalescingMaxGap(endpoint),
+                group.uncoalescibleTasks);
+        logger.debug("Queuing scheduled ({}ms) poll tasks of endpoint {}: {} tasks using {} requests",
+                pollPeriodMillis, endpoint, group.tasks.size(), plannedTasks.size());
+        EndpointDispatcher dispatcher = getDispatcher(executor, endpoint);
+        for (PollTask task : plannedTasks) {
+            // Coalesced tasks are not registered themselves, the tasks they consist of are
+            boolean oneOffTask = task instanceof CoalescedPollTask;
+            Object key = task;
+            if (oneOffTask) {
+                CoalescedPollTask coalescedTask = (CoalescedPollTask) task;
+                coalescedTask.setExceptionResponseHandler(failed -> onCoalescedExceptionResponse(group, failed));
+                // Coalesced tasks are created on every round, the tasks they consist of identify them in the queue
+                key = coalescedTask.getTasks();
+            }
+            dispatcher.submitRegular(key, new PipelinedPoll(task, oneOffTask),
+                    () -> executeOperation(task, oneOffTask, pollOperation), pollPeriodMillis);
+        }
+    }
+
+    /**
+     * Execute the tasks of a coalesced task separately, since the slave responded with an exception to the merged
+     * request. The tasks are not merged anymore, until the endpoint configuration changes.
+     */
+    private void onCoalescedExceptionResponse(CoalescedPollGroup group, CoalescedPollTask coalescedTask) {
+        ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+        if (executor == null) {
+            return;
+        }
+        ModbusSlaveEndpoint endpoint = group.key.getKey();
+        long pollPeriodMillis = group.key.getValue();
+        logger.info("Slave {} responded with an exception to merged request {}, "
+                + "polling its {} tasks separately from now on", endpoint, coalescedTask.getRequest(),
+                coalescedTask.getTasks().size());
+        group.uncoalescibleTasks.addAll(coalescedTask.getTasks());
+        EndpointDispatcher dispatcher = getDispatcher(executor, endpoint);
+        for (PollTask task : coalescedTask.getTasks()) {
+            dispatcher.submitRegular(task, new PipelinedPoll(task, false),
+                    () -> executeOperation(task, false, pollOperation), pollPeriodMillis);
+        }
+    }
+
+    /**
+     * Apply the coalescing configuration of the endpoint to the registered regular poll tasks
+     */
+    private void replanRegularPolls(ModbusSlaveEndpoint endpoint) {
+        synchronized (this) {
+            if (scheduledThreadPoolExecutor == null) {
+                return;
+            }
+            boolean coalescing = getCoalescingMaxGap(endpoint) >= 0;
+            for (CoalescedPollGroup group : pollGroups.values()) {
+                if (group.key.getKey().equals(endpoint)) {
+                    group.uncoalescibleTasks.clear();
+                }
+            }
+            for (PollTask task : new ArrayList<>(scheduledPollTasks.keySet())) {
+                Long pollPeriodMillis = regularPollPeriods.get(task);
+                if (pollPeriodMillis == null || !task.getEndpoint().equals(endpoint)
+                        || coalescedPollTasks.containsKey(task) == coalescing) {
+                    continue;
+                }
+                logger.debug("Registering poll task {} again after configuration change of endpoint {}", task,
+                        endpoint);
+                registerRegularPoll(task, pollPeriodMillis, 0);
+            }
+        }
+    }
+
+    private EndpointDispatcher getDispatcher(ScheduledExecutorService executor, ModbusSlaveEndpoint endpoint) {
+        return dispatchers.computeIfAbsent(endpoint, ep -> {
+            EndpointDispatcher dispatcher = new EndpointDispatcher(ep, executor);
+            configurePipelining(dispatcher, getEndpointPoolConfigurationOrNull(ep));
+            return dispatcher;
+        });
+    }
+
+    private @Nullable EndpointPoolConfiguration getEndpointPoolConfigurationOrNull(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        return connectionFactory == null ? null : connectionFactory.getEndpointPoolConfiguration(endpoint);
+    }
+
+    private void configurePipelining(EndpointDispatcher dispatcher,
+            @Nullable EndpointPoolConfiguration configuration) {
+        int maxInFlight = configuration == null ? 1 : configuration.getPipelineMaxInFlight();
+        if (maxInFlight > 1 && dispatcher.getEndpoint() instanceof ModbusTCPSlaveEndpoint) {
+            ModbusSlaveEndpoint endpoint = dispatcher.getEndpoint();
+            dispatcher.setBatchExecutor(maxInFlight, operations -> executePipelined(endpoint, operations));
+        } else {
+            dispatcher.setBatchExecutor(1, null);
+        }
+    }
+
+    /**
+     * Execute poll tasks by sending all the requests before reading the responses, and match the responses to the
+     * requests using the transaction id, see {@link PipelinedPollExecutor}.
+     *
+     * This is a fast path only: the poll tasks for which no valid response is received, e.g. due to IO errors or
+     * exception responses from the slave, are executed again one by one using
+     * {@link #executeOperation(TaskWithEndpoint, boolean, ModbusOperation)}, which takes care of retries and error
+     * callbacks.
+     *
+     * @param endpoint TCP endpoint
+     * @param operations queued operations with {@link PipelinedPoll} batch items
+     */
+    private void executePipelined(ModbusSlaveEndpoint endpoint, List<QueuedOperation> operations) {
+        List<QueuedOperation> remaining = new ArrayList<>(operations);
+        Optional<ModbusSlaveConnection> connection = borrowConnection(endpoint);
+        try {
+            if (!connection.isPresent() || !(connection.get() instanceof TCPMasterConnection)
+                    || scheduledThreadPoolExecutor == null) {
+                return;
+            }
+            ModbusTransport transport = ((TCPMasterConnection) connection.get()).getModbusTransport();
+            List<QueuedOperation> pending = new ArrayList<>(operations.size());
+            for (QueuedOperation operation : operations) {
+                PipelinedPoll poll = (PipelinedPoll) operation.getBatchItem();
+                if (poll == null || operation.isDone()) {
+                    continue;
+                }
+                if (!poll.oneOffTask && !scheduledPollTasks.containsKey(poll.task)) {
+                    logger.debug("Poll task {} is unregistered, not executing it", poll.task);
+                    operation.complete();
+                    remaining.remove(operation);
+                    continue;
+                }
+                pending.add(operation);
+            }
+            logger.trace("Sending {} pipelined requests to endpoint {}", pending.size(), endpoint);
+            new PipelinedPollExecutor(transport, pipelineTransactionId).execute(pending,
+                    operation -> ((PipelinedPoll) Objects.requireNonNull(operation.getBatchItem())).task,
+                    operation -> {
+                        operation.complete();
+                        remaining.remove(operation);
+                    });
+        } catch (ModbusException e) {
+            logger.debug("Pipelined requests to endpoint {} failed, executing {} requests one by one: {} {}",
+                    endpoint, remaining.size(), e.getClass().getName(), e.getMessage());
+            invalidate(endpoint, connection);
+            connection = Optional.empty();
+        } finally {
+            returnConnection(endpoint, connection);
+            remaining.forEach(QueuedOperation::run);
+        }
+    }
+
+    private int getCoalescingMaxGap(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        if (connectionFactory == null) {
+            return -1;
+        }
+        return Optional.ofNullable(connectionFactory.getEndpointPoolConfiguration(endpoint))
+                .map(EndpointPoolConfiguration::getCoalescingMaxGap).orElse(-1);
+    }
+
     @SuppressWarnings({ "null", "unused" })
     @Override
     public boolean unregisterRegularPoll(PollTask task) {
@@ -745,11 +996,22 @@ public class ModbusManagerImpl implements ModbusManager {
             // cancel poller
             @Nullable
             ScheduledFuture<?> future = scheduledPollTasks.remove(task);
+            regularPollPeriods.remove(task);
             if (future == null) {
                 // No such poll task
                 logger.warn("Caller tried to unregister nonexisting poll task {}", task);
                 return false;
             }
+            CoalescedPollGroup group = coalescedPollTasks.remove(task);
+            if (group != null) {
+                group.tasks.remove(task);
+                if (!group.tasks.isEmpty()) {
+                    // The shared poller keeps on running for the other tasks of the group
+                    logger.info("Unregistered regular poll task {} from coalesced poll group", task);
+                    return true;
+                }
+                pollGroups.remove(group.key);
+            }
             logger.info("Unregistering regular poll task {} (interrupting if necessary)", task);
 
             // Make sure connections to this endpoint are closed when they are returned to pool (which
@@ -781,13 +1043,13 @@ public class ModbusManagerImpl implements ModbusManager {
         Objects.requireNonNull(scheduledThreadPoolExecutor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off write task {}", task);
-        ScheduledFuture<?> future = scheduledThreadPoolExecutor.schedule(() -> {
+        // writes are executed before the queued polls of the endpoint
+        return getDispatcher(scheduledThreadPoolExecutor, task.getEndpoint()).submit(() -> {
             long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
+            logger.debug("Will now execute one-off write task {}, waited in queue for {}", task,
                     millisInThreadPoolWaiting);
             executeOperation(task, true, writeOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
-        return future;
+        }, true);
     }
 
     @Override
@@ -795,6 +1057,11 @@ public class ModbusManagerImpl implements ModbusManager {
             @Nullable EndpointPoolConfiguration configuration) {
         Objects.requireNonNull(connectionFactory, "Not activated!");
         connectionFactory.setEndpointPoolConfiguration(endpoint, configuration);
+        EndpointDispatcher dispatcher = dispatchers.get(endpoint);
+        if (dispatcher != null) {
+            configurePipelining(dispatcher, connectionFactory.getEndpointPoolConfiguration(endpoint));
+        }
+        replanRegularPolls(endpoint);
         for (ModbusManagerListener listener : listeners) {
             listener.onEndpointPoolConfigurationSet(endpoint, configuration);
         }
@@ -837,7 +1104,7 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.error("Thread pool is shut down! Aborting activation of ModbusMangerImpl");
                 throw new IllegalStateException("Thread pool(s) shut down! Aborting activation of ModbusMangerImpl");
             }
-            monitorFuture = scheduledThreadPoolExecutor.scheduleWithFixedDelay(this::logTaskQueueInfo, 0,
+            monitorFuture = scheduledThreadPoolExecutor.scheduleWithFixedDelay(this::logQueueStatistics, 0,
                     MONITOR_QUEUE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
         }
     }
@@ -860,6 +1127,8 @@ public class ModbusManagerImpl implements ModbusManager {
                 monitorFuture.cancel(true);
                 monitorFuture = null;
             }
+            dispatchers.values().forEach(EndpointDispatcher::cancelAll);
+            dispatchers.clear();
             // Note that it is not allowed to shutdown the executor, since they will be reused when
             // when pool is received from ThreadPoolManager is called
             scheduledThreadPoolExecutor = null;
@@ -868,38 +1137,24 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
-    private void logTaskQueueInfo() {
-        synchronized (pollMonitorLogger) {
-            ScheduledExecutorService scheduledThreadPoolExecutor = this.scheduledThreadPoolExecutor;
-            if (scheduledThreadPoolExecutor == null) {
-                return;
-            }
-            // Avoid excessive spamming with queue monitor when many tasks are executed
-            if (System.currentTimeMillis() - lastQueueMonitorLog < MONITOR_QUEUE_INTERVAL_MILLIS) {
-                return;
-            }
-            lastQueueMonitorLog = System.currentTimeMillis();
-            pollMonitorLogger.trace("<POLL MONITOR>");
-            this.scheduledPollTasks.forEach((task, future) -> {
-                pollMonitorLogger.trace(
-                        "POLL MONITOR: scheduled poll task. FC: {}, start {}, length {}, done: {}, canceled: {}, delay: {}. Full task {}",
-                        task.getRequest().getFunctionCode(), task.getRequest().getReference(),
-                        task.getRequest().getDataLength(), future.isDone(), future.isCancelled(),
-                        future.getDelay(TimeUnit.MILLISECONDS), task);
-            });
-            if (scheduledThreadPoolExecutor instanceof ThreadPoolExecutor) {
-                ThreadPoolExecutor executor = ((ThreadPoolExecutor) scheduledThreadPoolExecutor);
-                pollMonitorLogger.trace(
-                        "POLL MONITOR: scheduledThreadPoolExecutor queue size: {}, remaining space {}. Active threads {}",
-                        executor.getQueue().size(), executor.getQueue().remainingCapacity(), executor.getActiveCount());
-                if (executor.getQueue().size() >= WARN_QUEUE_SIZE) {
-                    pollMonitorLogger.warn(
-                            "Many ({}) tasks queued in scheduledThreadPoolExecutor! This might be sign of bad design or bug in the binding code.",
-                            executor.getQueue().size());
-                }
-            }
+    /**
+     * Returns the operation queues of the endpoints, providing queue depth and latency statistics
+     */
+    public Collection<EndpointDispatcher> getEndpointDispatchers() {
+        return dispatchers.values();
+    }
 
-            pollMonitorLogger.trace("</POLL MONITOR>");
+    private void logQueueStatistics() {
+        pollMonitorLogger.debug("POLL MONITOR: {} regular poll tasks registered", scheduledPollTasks.size());
+        for (EndpointDispatcher dispatcher : dispatchers.values()) {
+            int queueDepth = dispatcher.getQueueDepth();
+            if (queueDepth >= WARN_QUEUE_SIZE) {
+                pollMonitorLogger.warn("Many ({}) operations queued for endpoint {}! "
+                        + "This might be sign of bad design or bug in the binding code. {}", queueDepth,
+                        dispatcher.getEndpoint(), dispatcher);
+            } else {
+                pollMonitorLogger.debug("POLL MONITOR: {}", dispatcher);
+            }
         }
     }
 
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.PollTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.wimpi.modbus.ModbusException;
+import net.wimpi.modbus.io.ModbusTransport;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ModbusResponse;
+
+/**
+ * Executes poll tasks over a single TCP transport by sending all the requests before reading the responses. The
+ * responses are matched to the requests using the transaction id, so the slave may respond in any order.
+ *
+ * Only valid responses are handled: the items for which the slave responded with an exception, or for which no
+ * response was read due to an IO error, are left to the caller.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PipelinedPollExecutor {
+
+    /**
+     * Largest transaction id, ids wrap around to 1 after it
+     */
+    public static final int MAX_TRANSACTION_ID = 0xffff;
+
+    private final Logger logger = LoggerFactory.getLogger(PipelinedPollExecutor.class);
+
+    private final ModbusTransport transport;
+    private final AtomicInteger transactionId;
+
+    /**
+     * @param transport transport of the connection to use
+     * @param transactionId the last used transaction id, shared by all executions for the same endpoint
+     */
+    public PipelinedPollExecutor(ModbusTransport transport, AtomicInteger transactionId) {
+        this.transport = transport;
+        this.transactionId = transactionId;
+    }
+
+    /**
+     * Execute the poll tasks of the given items
+     *
+     * @param items items to execute
+     * @param taskOf function returning the poll task of an item
+     * @param onResponse called for every item with a valid response, after the callback of its poll task was called
+     * @throws ModbusException on IO errors. Items not passed to onResponse before the error are not executed.
+     */
+    public <T> void execute(List<T> items, Function<T, PollTask> taskOf, Consumer<T> onResponse)
+            throws ModbusException {
+        Map<Integer, T> inFlight = new HashMap<>();
+        for (T item : items) {
+            ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(taskOf.apply(item).getRequest());
+            int id = transactionId.updateAndGet(last -> last >= MAX_TRANSACTION_ID ? 1 : last + 1);
+            libRequest.setTransactionID(id);
+            transport.writeMessage(libRequest);
+            inFlight.put(id, item);
+        }
+        logger.trace("Sent {} pipelined requests", inFlight.size());
+        while (!inFlight.isEmpty()) {
+            ModbusResponse response = transport.readResponse();
+            T item = inFlight.remove(response.getTransactionID());
+            if (item == null) {
+                logger.debug("Ignoring pipelined response with unexpected transaction id {}",
+                        response.getTransactionID());
+                continue;
+            }
+            if (response instanceof ExceptionResponse) {
+                logger.debug("Slave responded with exception code {} to pipelined request with transaction id {}",
+                        ((ExceptionResponse) response).getExceptionCode(), response.getTransactionID());
+                continue;
+            }
+            PollTask task = taskOf.apply(item);
+            ModbusReadCallback callback = task.getCallback();
+            if (callback != null) {
+                ModbusLibraryWrapper.invokeCallbackWithResponse(task.getRequest(), callback, response);
+            }
+            onResponse.accept(item);
+        }
+    }
+}
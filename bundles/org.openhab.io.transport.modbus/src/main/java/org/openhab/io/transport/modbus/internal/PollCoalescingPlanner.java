@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Plans the execution of poll tasks that are due at the same time, merging compatible tasks into
+ * {@link CoalescedPollTask}s.
+ *
+ * Tasks are compatible if they share endpoint, unit id, function code and max tries. Compatible tasks are merged
+ * when the gap between them is at most the given maximum gap and the merged request does not exceed the maximum
+ * request size allowed by the Modbus specification.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PollCoalescingPlanner {
+
+    /**
+     * Maximum number of registers in a single read request (FC 3 and 4)
+     */
+    public static final int MAX_REGISTERS_PER_REQUEST = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs in a single read request (FC 1 and 2)
+     */
+    public static final int MAX_BITS_PER_REQUEST = 2000;
+
+    private static class CompatibilityKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final int unitId;
+        private final ModbusReadFunctionCode functionCode;
+        private final int maxTries;
+
+        public CompatibilityKey(PollTask task) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            this.endpoint = task.getEndpoint();
+            this.unitId = request.getUnitID();
+            this.functionCode = request.getFunctionCode();
+            this.maxTries = request.getMaxTries();
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder(13, 89).append(endpoint).append(unitId).append(functionCode).append(maxTries)
+                    .toHashCode();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == null) {
+                return false;
+            }
+            if (obj == this) {
+                return true;
+            }
+            if (obj.getClass() != getClass()) {
+                return false;
+            }
+            CompatibilityKey rhs = (CompatibilityKey) obj;
+            return new EqualsBuilder().append(endpoint, rhs.endpoint).append(unitId, rhs.unitId)
+                    .append(functionCode, rhs.functionCode).append(maxTries, rhs.maxTries).isEquals();
+        }
+    }
+
+    /**
+     * Returns the maximum data length of a single read request with the given function code
+     */
+    public static int getMaxDataLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS_PER_REQUEST;
+            default:
+                return MAX_REGISTERS_PER_REQUEST;
+        }
+    }
+
+    /**
+     * Plan the execution of the given tasks
+     *
+     * @param tasks tasks to execute
+     * @param maxGap maximum number of unused registers/bits between two merged tasks. With negative values, tasks are
+     *            not merged at all.
+     * @return tasks to execute. Tasks that could not be merged with any other task are returned as is, all other tasks
+     *         are replaced by {@link CoalescedPollTask}s.
+     */
+    public static List<PollTask> plan(Collection<PollTask> tasks, int maxGap) {
+        return plan(tasks, maxGap, Collections.emptySet());
+    }
+
+    /**
+     * Plan the execution of the given tasks
+     *
+     * @param tasks tasks to execute
+     * @param maxGap maximum number of unused registers/bits between two merged tasks. With negative values, tasks are
+     *            not merged at all.
+     * @param uncoalescibleTasks tasks that are not merged with any other task
+     * @return tasks to execute. Tasks that could not be merged with any other task are returned as is, all other tasks
+     *         are replaced by {@link CoalescedPollTask}s.
+     */
+    public static List<PollTask> plan(Collection<PollTask> tasks, int maxGap, Set<PollTask> uncoalescibleTasks) {
+        if (maxGap < 0 || tasks.size() < 2) {
+            return new ArrayList<>(tasks);
+        }
+        List<PollTask> planned = new ArrayList<>(tasks.size());
+        Map<CompatibilityKey, List<PollTask>> compatibleTasks = new LinkedHashMap<>();
+        for (PollTask task : tasks) {
+            if (uncoalescibleTasks.contains(task)) {
+                planned.add(task);
+                continue;
+            }
+            compatibleTasks.computeIfAbsent(new CompatibilityKey(task), key -> new ArrayList<>()).add(task);
+        }
+
+        for (List<PollTask> group : compatibleTasks.values()) {
+            group.sort(Comparator.comparingInt((PollTask task) -> task.getRequest().getReference())
+                    .thenComparingInt(task -> task.getRequest().getDataLength()));
+            int maxLength = getMaxDataLength(group.get(0).getRequest().getFunctionCode());
+
+            List<PollTask> batch = new ArrayList<>();
+            int batchStart = 0;
+            int batchEnd = 0;
+            for (PollTask task : group) {
+                ModbusReadRequestBlueprint request = task.getRequest();
+                int start = request.getReference();
+                int end = start + request.getDataLength();
+                if (!batch.isEmpty() && start - batchEnd <= maxGap
+                        && Math.max(end, batchEnd) - batchStart <= maxLength) {
+                    batch.add(task);
+                    batchEnd = Math.max(end, batchEnd);
+                    continue;
+                }
+                addBatch(planned, batch);
+                batch = new ArrayList<>();
+                batch.add(task);
+                batchStart = start;
+                batchEnd = end;
+            }
+            addBatch(planned, batch);
+        }
+        return planned;
+    }
+
+    private static void addBatch(List<PollTask> planned, List<PollTask> batch) {
+        if (batch.size() == 1) {
+            planned.add(batch.get(0));
+        } else if (batch.size() > 1) {
+            planned.add(new CoalescedPollTask(batch));
+        }
+    }
+}
@@ -401,4 +401,38 @@ public class BitUtilitiesExtractStateFromRegistersTest {
         assertThat(String.format("registers=%s, index=%d, type=%s", registers, index, type), actualState,
                 is(equalTo(expectedStateWrapped)));
     }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testExtractDouble() {
+        if (expectedResult instanceof Class && Exception.class.isAssignableFrom((Class) expectedResult)) {
+            shouldThrow.expect((Class) expectedResult);
+        }
+
+        double actual = ModbusBitUtilities.extractDouble(this.registers, this.index, this.type);
+        String message = String.format("registers=%s, index=%d, type=%s", registers, index, type);
+        if (expectedResult instanceof DecimalType) {
+            assertThat(message, actual, is(equalTo(((DecimalType) expectedResult).doubleValue())));
+        } else {
+            // NaN or infinity, represented by empty Optional with extractStateFromRegisters
+            assertThat(message, Double.isNaN(actual) || Double.isInfinite(actual), is(true));
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testExtractLong() {
+        if (type == ValueType.FLOAT32 || type == ValueType.FLOAT32_SWAP) {
+            shouldThrow.expect(IllegalArgumentException.class);
+        } else if (expectedResult instanceof Class && Exception.class.isAssignableFrom((Class) expectedResult)) {
+            shouldThrow.expect((Class) expectedResult);
+        }
+
+        long actual = ModbusBitUtilities.extractLong(this.registers, this.index, this.type);
+        String actualUnsignedAware = type == ValueType.UINT64 || type == ValueType.UINT64_SWAP
+                ? Long.toUnsignedString(actual)
+                : Long.toString(actual);
+        assertThat(String.format("registers=%s, index=%d, type=%s", registers, index, type),
+                new DecimalType(actualUnsignedAware), is(equalTo(expectedResult)));
+    }
 }
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointDispatcher;
+import org.openhab.io.transport.modbus.internal.EndpointDispatcher.QueuedOperation;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class EndpointDispatcherTest {
+
+    /**
+     * Executor running the submitted runnables only when asked to
+     */
+    private static class ManualExecutor implements Executor {
+        private final Deque<Runnable> queue = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+
+        void runAll() {
+            Runnable next;
+            while ((next = queue.poll()) != null) {
+                next.run();
+            }
+        }
+    }
+
+    private ManualExecutor executor;
+    private EndpointDispatcher dispatcher;
+    private List<String> executed;
+
+    @Before
+    public void setUp() {
+        executor = new ManualExecutor();
+        dispatcher = new EndpointDispatcher(new ModbusTCPSlaveEndpoint("localhost", 502), executor);
+        executed = new ArrayList<>();
+    }
+
+    @Test
+    public void testPriorityOperationsAreExecutedFirst() {
+        dispatcher.submitRegular("poll1", () -> executed.add("poll1"), 0);
+        dispatcher.submit(() -> executed.add("oneOffPoll"), false);
+        dispatcher.submit(() -> executed.add("write"), true);
+        assertThat(dispatcher.getQueueDepth(), is(equalTo(3)));
+
+        executor.runAll();
+
+        assertThat(executed, is(equalTo(Arrays.asList("write", "poll1", "oneOffPoll"))));
+        assertThat(dispatcher.getQueueDepth(), is(equalTo(0)));
+        assertThat(dispatcher.getMaxQueueDepth(), is(equalTo(3)));
+        assertThat(dispatcher.getExecutedCount(), is(equalTo(3L)));
+    }
+
+    @Test
+    public void testOneOperationAtATimeInExecutor() {
+        dispatcher.submit(() -> executed.add("write1"), true);
+        dispatcher.submit(() -> executed.add("write2"), true);
+        // the dispatcher re-submits itself after each operation
+        assertThat(executor.queue.size(), is(equalTo(1)));
+        executor.queue.poll().run();
+        assertThat(executed, is(equalTo(Arrays.asList("write1"))));
+        assertThat(executor.queue.size(), is(equalTo(1)));
+        executor.runAll();
+        assertThat(executed, is(equalTo(Arrays.asList("write1", "write2"))));
+    }
+
+    @Test
+    public void testPendingRegularOperationIsNotQueuedAgain() {
+        assertNotNull(dispatcher.submitRegular("poll1", () -> executed.add("poll1"), 0));
+        assertNull(dispatcher.submitRegular("poll1", () -> executed.add("poll1"), 0));
+        executor.runAll();
+        assertThat(executed, is(equalTo(Arrays.asList("poll1"))));
+        assertThat(dispatcher.getSkippedCount(), is(equalTo(1L)));
+
+        // once executed, the operation can be queued again
+        assertNotNull(dispatcher.submitRegular("poll1", () -> executed.add("poll1"), 0));
+        executor.runAll();
+        assertThat(executed, is(equalTo(Arrays.asList("poll1", "poll1"))));
+    }
+
+    @Test
+    public void testStaleOperationIsDropped() throws InterruptedException {
+        QueuedOperation stale = dispatcher.submitRegular("poll1", () -> executed.add("poll1"), 1);
+        dispatcher.submit(() -> executed.add("oneOffPoll"), false);
+        Thread.sleep(10);
+        executor.runAll();
+
+        assertThat(executed, is(equalTo(Arrays.asList("oneOffPoll"))));
+        assertThat(dispatcher.getDroppedCount(), is(equalTo(1L)));
+        assertTrue(stale.isCancelled());
+    }
+
+    @Test
+    public void testCanceledOperationIsNotExecuted() {
+        QueuedOperation operation = dispatcher.submit(() -> executed.add("write"), true);
+        operation.cancel(false);
+        executor.runAll();
+        assertThat(executed.size(), is(equalTo(0)));
+        assertTrue(operation.isDone());
+    }
+
+    @Test
+    public void testBatchableOperationsAreHandedOverTogether() {
+        List<List<Object>> batches = new ArrayList<>();
+        dispatcher.setBatchExecutor(2, operations -> {
+            List<Object> items = new ArrayList<>();
+            for (QueuedOperation operation : operations) {
+                items.add(operation.getBatchItem());
+                operation.complete();
+            }
+            batches.add(items);
+        });
+        dispatcher.submitRegular("poll1", "item1", () -> executed.add("poll1"), 0);
+        dispatcher.submitBatchable(() -> executed.add("poll2"), "item2");
+        dispatcher.submitBatchable(() -> executed.add("poll3"), "item3");
+        dispatcher.submit(() -> executed.add("oneOffPoll"), false);
+        executor.runAll();
+
+        // batch of one is executed as is, non-batchable operation breaks the batch
+        assertThat(batches, is(equalTo(Arrays.asList(Arrays.asList("item1", "item2")))));
+        assertThat(executed, is(equalTo(Arrays.asList("poll3", "oneOffPoll"))));
+        assertThat(dispatcher.getExecutedCount(), is(equalTo(4L)));
+
+        // key is released after batch execution
+        assertNotNull(dispatcher.submitRegular("poll1", "item1", () -> executed.add("poll1"), 0));
+    }
+
+    @Test
+    public void testOperationsNotCompletedByBatchExecutorAreCancelled() {
+        List<QueuedOperation> handedOver = new ArrayList<>();
+        dispatcher.setBatchExecutor(2, handedOver::addAll);
+        dispatcher.submitBatchable(() -> executed.add("poll1"), "item1");
+        dispatcher.submitBatchable(() -> executed.add("poll2"), "item2");
+        executor.runAll();
+
+        assertThat(handedOver.size(), is(equalTo(2)));
+        assertTrue(handedOver.get(0).isCancelled());
+        assertTrue(handedOver.get(1).isCancelled());
+        assertThat(executed.size(), is(equalTo(0)));
+    }
+}
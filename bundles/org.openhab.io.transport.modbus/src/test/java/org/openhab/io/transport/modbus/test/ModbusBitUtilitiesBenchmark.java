@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Decodes all values of a full read response (120 registers). Compares the earlier {@link ByteBuffer} based decoding
+ * with {@link ModbusBitUtilities#extractStateFromRegisters} and the primitive extraction methods.
+ *
+ * Run the main method from the IDE or with the test classpath, it is not part of the unit tests.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModbusBitUtilitiesBenchmark {
+
+    private static final int REGISTER_COUNT = 120;
+
+    @Param({ "INT16", "INT32", "FLOAT32", "UINT64" })
+    public String valueType = "INT16";
+
+    private ValueType type = ValueType.INT16;
+    private int registersPerValue = 1;
+    private ModbusRegisterArray registers = new BasicModbusRegisterArray();
+
+    @Setup
+    public void setUp() {
+        type = ValueType.valueOf(valueType);
+        registersPerValue = type.getBits() / 16;
+        Random random = new Random(42);
+        int[] values = new int[REGISTER_COUNT];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(0x10000);
+        }
+        registers = new BasicModbusRegisterArray(values);
+    }
+
+    @Benchmark
+    public void byteBufferDecoding(Blackhole blackhole) {
+        for (int index = 0; index + registersPerValue <= REGISTER_COUNT; index += registersPerValue) {
+            blackhole.consume(decodeWithByteBuffer(index));
+        }
+    }
+
+    @Benchmark
+    public void extractState(Blackhole blackhole) {
+        for (int index = 0; index + registersPerValue <= REGISTER_COUNT; index += registersPerValue) {
+            blackhole.consume(ModbusBitUtilities.extractStateFromRegisters(registers, index, type));
+        }
+    }
+
+    @Benchmark
+    public void extractDouble(Blackhole blackhole) {
+        for (int index = 0; index + registersPerValue <= REGISTER_COUNT; index += registersPerValue) {
+            blackhole.consume(ModbusBitUtilities.extractDouble(registers, index, type));
+        }
+    }
+
+    /**
+     * The decoding as implemented before the primitive extraction methods
+     */
+    private Optional<DecimalType> decodeWithByteBuffer(int index) {
+        ByteBuffer buff = ByteBuffer.allocate(registersPerValue * 2);
+        for (int i = 0; i < registersPerValue; i++) {
+            buff.put(registers.getRegister(index + i).getBytes());
+        }
+        buff.order(ByteOrder.BIG_ENDIAN);
+        switch (type) {
+            case INT16:
+                return Optional.of(new DecimalType(buff.getShort(0)));
+            case INT32:
+                return Optional.of(new DecimalType(buff.getInt(0)));
+            case FLOAT32:
+                try {
+                    return Optional.of(new DecimalType(buff.getFloat(0)));
+                } catch (NumberFormatException e) {
+                    return Optional.empty();
+                }
+            default:
+                return Optional.of(new DecimalType(new BigDecimal(new BigInteger(1, buff.array()))));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ModbusBitUtilitiesBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.PipelinedPollExecutor;
+
+import net.wimpi.modbus.Modbus;
+import net.wimpi.modbus.ModbusException;
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.io.ModbusTransport;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusMessage;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.msg.ReadMultipleRegistersResponse;
+import net.wimpi.modbus.procimg.Register;
+import net.wimpi.modbus.procimg.SimpleRegister;
+
+/**
+ * Tests for {@link PipelinedPollExecutor} against a fake transport
+ *
+ * @author agent - Initial contribution
+ */
+public class PipelinedPollExecutorTest {
+
+    private static class RecordingCallback implements ModbusReadCallback {
+        List<Integer> values = new ArrayList<>();
+        List<Exception> errors = new ArrayList<>();
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            values.add(registers.getRegister(0).getValue());
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            errors.add(error);
+        }
+    }
+
+    private final ModbusTCPSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    private ModbusTransport transport;
+    private List<PollTask> answered;
+
+    @Before
+    public void setUp() {
+        transport = mock(ModbusTransport.class);
+        answered = new ArrayList<>();
+    }
+
+    private PollTask task(int start, RecordingCallback callback) {
+        return new BasicPollTaskImpl(endpoint,
+                new BasicModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, 1, 3),
+                callback);
+    }
+
+    private static ModbusResponse registerResponse(int transactionId, int value) {
+        ModbusResponse response = new ReadMultipleRegistersResponse(new Register[] { new SimpleRegister(value) });
+        response.setTransactionID(transactionId);
+        return response;
+    }
+
+    private static ModbusResponse exceptionResponse(int transactionId) {
+        ModbusResponse response = new ExceptionResponse(Modbus.READ_MULTIPLE_REGISTERS,
+                Modbus.ILLEGAL_ADDRESS_EXCEPTION);
+        response.setTransactionID(transactionId);
+        return response;
+    }
+
+    private void execute(AtomicInteger transactionId, PollTask... tasks) throws ModbusException {
+        new PipelinedPollExecutor(transport, transactionId).execute(Arrays.asList(tasks), Function.identity(),
+                answered::add);
+    }
+
+    private List<Integer> sentTransactionIds(int count) throws ModbusIOException {
+        ArgumentCaptor<ModbusMessage> captor = ArgumentCaptor.forClass(ModbusMessage.class);
+        verify(transport, times(count)).writeMessage(captor.capture());
+        return captor.getAllValues().stream().map(ModbusMessage::getTransactionID).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testResponsesInDifferentOrderAreMatchedByTransactionId() throws ModbusException {
+        RecordingCallback firstCallback = new RecordingCallback();
+        RecordingCallback secondCallback = new RecordingCallback();
+        PollTask first = task(0, firstCallback);
+        PollTask second = task(10, secondCallback);
+        // responses in reverse order, with a stray response in between
+        when(transport.readResponse()).thenReturn(registerResponse(2, 20), registerResponse(99, 99),
+                registerResponse(1, 10));
+
+        execute(new AtomicInteger(), first, second);
+
+        assertThat(sentTransactionIds(2), is(equalTo(Arrays.asList(1, 2))));
+        assertThat(firstCallback.values, is(equalTo(Arrays.asList(10))));
+        assertThat(secondCallback.values, is(equalTo(Arrays.asList(20))));
+        assertThat(answered, is(equalTo(Arrays.asList(second, first))));
+    }
+
+    @Test
+    public void testExceptionResponseIsLeftToCaller() throws ModbusException {
+        RecordingCallback firstCallback = new RecordingCallback();
+        RecordingCallback secondCallback = new RecordingCallback();
+        PollTask first = task(0, firstCallback);
+        PollTask second = task(10, secondCallback);
+        when(transport.readResponse()).thenReturn(exceptionResponse(1), registerResponse(2, 20));
+
+        execute(new AtomicInteger(), first, second);
+
+        // no callback for the exception response, the caller executes the task again on its own
+        assertThat(firstCallback.values.isEmpty(), is(true));
+        assertThat(firstCallback.errors.isEmpty(), is(true));
+        assertThat(secondCallback.values, is(equalTo(Arrays.asList(20))));
+        assertThat(answered, is(equalTo(Arrays.asList(second))));
+    }
+
+    @Test
+    public void testIOErrorLeavesUnansweredTasksToCaller() throws ModbusException {
+        RecordingCallback firstCallback = new RecordingCallback();
+        RecordingCallback secondCallback = new RecordingCallback();
+        PollTask first = task(0, firstCallback);
+        PollTask second = task(10, secondCallback);
+        when(transport.readResponse()).thenReturn(registerResponse(1, 10))
+                .thenThrow(new ModbusIOException("connection reset"));
+
+        try {
+            execute(new AtomicInteger(), first, second);
+            fail("Expected ModbusIOException");
+        } catch (ModbusIOException e) {
+            // expected
+        }
+
+        assertThat(firstCallback.values, is(equalTo(Arrays.asList(10))));
+        assertThat(secondCallback.values.isEmpty(), is(true));
+        assertThat(secondCallback.errors.isEmpty(), is(true));
+        assertThat(answered, is(equalTo(Arrays.asList(first))));
+    }
+
+    @Test
+    public void testWriteErrorLeavesAllTasksToCaller() throws ModbusException {
+        RecordingCallback callback = new RecordingCallback();
+        doThrow(new ModbusIOException("broken pipe")).when(transport).writeMessage(any());
+
+        try {
+            execute(new AtomicInteger(), task(0, callback), task(10, callback));
+            fail("Expected ModbusIOException");
+        } catch (ModbusIOException e) {
+            // expected
+        }
+
+        verify(transport, never()).readResponse();
+        assertThat(callback.values.isEmpty(), is(true));
+        assertThat(answered.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testTransactionIdWrapsAround() throws ModbusException {
+        RecordingCallback callback = new RecordingCallback();
+        PollTask first = task(0, callback);
+        PollTask second = task(10, callback);
+        PollTask third = task(20, callback);
+        AtomicInteger transactionId = new AtomicInteger(PipelinedPollExecutor.MAX_TRANSACTION_ID - 1);
+        when(transport.readResponse()).thenReturn(registerResponse(1, 20), registerResponse(0xffff, 10),
+                registerResponse(2, 30));
+
+        execute(transactionId, first, second, third);
+
+        // 0 is never used as transaction id
+        assertThat(sentTransactionIds(3), is(equalTo(Arrays.asList(0xffff, 1, 2))));
+        assertThat(transactionId.get(), is(equalTo(2)));
+        assertThat(callback.values, is(equalTo(Arrays.asList(20, 10, 30))));
+        assertThat(answered, is(equalTo(Arrays.asList(second, first, third))));
+    }
+}
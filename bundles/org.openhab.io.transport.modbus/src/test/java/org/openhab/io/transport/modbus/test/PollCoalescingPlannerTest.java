@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.CoalescedPollTask;
+import org.openhab.io.transport.modbus.internal.ModbusSlaveErrorResponseExceptionImpl;
+import org.openhab.io.transport.modbus.internal.PollCoalescingPlanner;
+
+import net.wimpi.modbus.ModbusSlaveException;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class PollCoalescingPlannerTest {
+
+    private static class RecordingCallback implements ModbusReadCallback {
+        List<ModbusRegisterArray> registers = new ArrayList<>();
+        List<ModbusReadRequestBlueprint> requests = new ArrayList<>();
+        List<Exception> errors = new ArrayList<>();
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            this.requests.add(request);
+            this.registers.add(registers);
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            this.requests.add(request);
+            this.errors.add(error);
+        }
+    }
+
+    private final ModbusTCPSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    private PollTask task(int unitId, ModbusReadFunctionCode functionCode, int start, int length,
+            ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(endpoint,
+                new BasicModbusReadRequestBlueprint(unitId, functionCode, start, length, 3), callback);
+    }
+
+    @Test
+    public void testTasksAreNotMergedWhenDisabled() {
+        List<PollTask> tasks = Arrays.asList(
+                task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, new RecordingCallback()),
+                task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2, new RecordingCallback()));
+        assertThat(PollCoalescingPlanner.plan(tasks, -1), is(equalTo(tasks)));
+    }
+
+    @Test
+    public void testCompatibleTasksWithinGapAreMerged() {
+        PollTask first = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 2, new RecordingCallback());
+        PollTask second = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 4, new RecordingCallback());
+        PollTask farAway = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 100, 2, new RecordingCallback());
+        PollTask otherUnit = task(2, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 4, 2, new RecordingCallback());
+        PollTask otherFunction = task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 4, 2, new RecordingCallback());
+
+        List<PollTask> planned = PollCoalescingPlanner
+                .plan(Arrays.asList(first, second, farAway, otherUnit, otherFunction), 6);
+
+        assertThat(planned.size(), is(equalTo(4)));
+        CoalescedPollTask merged = (CoalescedPollTask) planned.get(0);
+        assertThat(merged.getTasks(), is(equalTo(Arrays.asList(second, first))));
+        assertThat(merged.getRequest().getReference(), is(equalTo(0)));
+        assertThat(merged.getRequest().getDataLength(), is(equalTo(12)));
+        assertThat(planned.get(1), is(sameInstance(farAway)));
+        assertThat(planned.get(2), is(sameInstance(otherUnit)));
+        assertThat(planned.get(3), is(sameInstance(otherFunction)));
+    }
+
+    @Test
+    public void testMergedRequestDoesNotExceedMaximumLength() {
+        PollTask first = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 100, new RecordingCallback());
+        PollTask second = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 100, 26, new RecordingCallback());
+
+        List<PollTask> planned = PollCoalescingPlanner.plan(Arrays.asList(first, second), 10);
+
+        assertThat(planned, is(equalTo(Arrays.asList(first, second))));
+    }
+
+    @Test
+    public void testResponseIsSlicedForTheOriginalCallbacks() {
+        RecordingCallback firstCallback = new RecordingCallback();
+        RecordingCallback secondCallback = new RecordingCallback();
+        PollTask first = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, firstCallback);
+        PollTask second = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 3, 1, secondCallback);
+
+        PollTask merged = PollCoalescingPlanner.plan(Arrays.asList(first, second), 1).get(0);
+        merged.getCallback().onRegisters(merged.getRequest(), new BasicModbusRegisterArray(5, 6, 7, 8));
+
+        assertThat(firstCallback.requests.get(0), is(sameInstance(first.getRequest())));
+        assertThat(firstCallback.registers.get(0).size(), is(equalTo(2)));
+        assertThat(firstCallback.registers.get(0).getRegister(0).getValue(), is(equalTo(5)));
+        assertThat(firstCallback.registers.get(0).getRegister(1).getValue(), is(equalTo(6)));
+        assertThat(secondCallback.requests.get(0), is(sameInstance(second.getRequest())));
+        assertThat(secondCallback.registers.get(0).size(), is(equalTo(1)));
+        assertThat(secondCallback.registers.get(0).getRegister(0).getValue(), is(equalTo(8)));
+    }
+
+    @Test
+    public void testUncoalescibleTasksAreNotMerged() {
+        PollTask first = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, new RecordingCallback());
+        PollTask second = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2, new RecordingCallback());
+        PollTask third = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 4, 2, new RecordingCallback());
+
+        List<PollTask> planned = PollCoalescingPlanner.plan(Arrays.asList(first, second, third), 2,
+                Collections.singleton(second));
+
+        assertThat(planned.size(), is(equalTo(2)));
+        assertThat(planned.get(0), is(sameInstance(second)));
+        // without the uncoalescible task in between, the gap is still small enough
+        assertThat(((CoalescedPollTask) planned.get(1)).getTasks(), is(equalTo(Arrays.asList(first, third))));
+    }
+
+    @Test
+    public void testExceptionResponseIsHandedToHandler() {
+        RecordingCallback firstCallback = new RecordingCallback();
+        RecordingCallback secondCallback = new RecordingCallback();
+        PollTask first = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, firstCallback);
+        PollTask second = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 3, 1, secondCallback);
+        CoalescedPollTask merged = (CoalescedPollTask) PollCoalescingPlanner.plan(Arrays.asList(first, second), 1)
+                .get(0);
+        List<CoalescedPollTask> handled = new ArrayList<>();
+        merged.setExceptionResponseHandler(handled::add);
+
+        merged.getCallback().onError(merged.getRequest(),
+                new ModbusSlaveErrorResponseExceptionImpl(new ModbusSlaveException(2)));
+
+        assertThat(handled, is(equalTo(Arrays.asList(merged))));
+        assertThat(firstCallback.errors.size(), is(equalTo(0)));
+        assertThat(secondCallback.errors.size(), is(equalTo(0)));
+
+        // other errors are forwarded to the original callbacks
+        Exception ioError = new Exception("connection lost");
+        merged.getCallback().onError(merged.getRequest(), ioError);
+
+        assertThat(handled.size(), is(equalTo(1)));
+        assertThat(firstCallback.errors, is(equalTo(Arrays.asList(ioError))));
+        assertThat(firstCallback.requests.get(0), is(sameInstance(first.getRequest())));
+        assertThat(secondCallback.errors, is(equalTo(Arrays.asList(ioError))));
+    }
+}
@@ -0,0 +1,307 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.IOError;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mapdb.DB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Group commit writer of the {@link MapDbPersistenceService}.
+ * <p>
+ * Stored items are staged in memory and written to the database with a single commit, either when the
+ * commit interval has elapsed or when the staging area holds the configured batch size. Repeated updates
+ * of the same item within one batch only update the last value once, while every update is kept for the
+ * time series history.
+ * <p>
+ * If a batch cannot be committed, its items are committed one at a time. Items that still fail, for example
+ * because their state cannot be serialized, are dropped with a warning instead of failing every later batch.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbCommitter {
+    private final Logger logger = LoggerFactory.getLogger(MapDbCommitter.class);
+
+    private final DB db;
+    private final Map<String, MapDbItem> map;
+    private final @Nullable MapDbItemHistory history;
+    private final ScheduledExecutorService scheduler;
+    private final int batchSize;
+
+    /** guards the staging area and the flush-requested flag */
+    private final Object stagingLock = new Object();
+    private Map<String, MapDbItem> stagedItems = new HashMap<>();
+    private List<MapDbItem> stagedHistory = new ArrayList<>();
+    /** items taken from the staging area by the running flush, until they are visible in the map */
+    private Map<String, MapDbItem> flushingItems = new HashMap<>();
+    private boolean flushRequested = false;
+
+    /** serializes the flushes, a commit may take a while */
+    private final Object flushLock = new Object();
+
+    private @Nullable ScheduledFuture<?> flushJob;
+
+    // statistics
+    private long commits;
+    private long committedItems;
+    private long coalescedItems;
+    private long lastCommitNanos;
+    private long maxCommitNanos;
+    private long totalCommitNanos;
+
+    public MapDbCommitter(DB db, Map<String, MapDbItem> map, @Nullable MapDbItemHistory history,
+            ScheduledExecutorService scheduler, int batchSize) {
+        this.db = db;
+        this.map = map;
+        this.history = history;
+        this.scheduler = scheduler;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public void start(int commitIntervalMillis) {
+        long interval = Math.max(1, commitIntervalMillis);
+        flushJob = scheduler.scheduleWithFixedDelay(this::scheduledFlush, interval, interval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Flushes without throwing, an exception would cancel the periodic flush job.
+     */
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (Throwable e) {
+            logger.error("Unexpected error while committing to the MapDB database", e);
+        }
+    }
+
+    /**
+     * Stops the periodic commits and writes all staged items to the database.
+     */
+    public void stop() {
+        ScheduledFuture<?> flushJob = this.flushJob;
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            this.flushJob = null;
+        }
+        flush();
+    }
+
+    public void store(MapDbItem item) {
+        boolean triggerFlush = false;
+        synchronized (stagingLock) {
+            if (stagedItems.put(item.getName(), item) != null) {
+                coalescedItems++;
+            }
+            if (history != null) {
+                stagedHistory.add(item);
+            }
+            if (!flushRequested && getQueueDepthUnsynchronized() >= batchSize) {
+                flushRequested = true;
+                triggerFlush = true;
+            }
+        }
+        if (triggerFlush) {
+            scheduler.execute(this::scheduledFlush);
+        }
+    }
+
+    /**
+     * Returns the staged, not yet committed, item with the given name.
+     */
+    public @Nullable MapDbItem getStaged(String name) {
+        synchronized (stagingLock) {
+            MapDbItem item = stagedItems.get(name);
+            return item != null ? item : flushingItems.get(name);
+        }
+    }
+
+    /**
+     * Writes all staged items to the database and runs the given task, without any commit of this committer
+     * in between. The task may modify and commit the database itself.
+     *
+     * @param task the task to run
+     * @return the result of the task
+     */
+    public <T> T runExclusively(Supplier<T> task) {
+        synchronized (flushLock) {
+            flush();
+            return task.get();
+        }
+    }
+
+    /**
+     * Writes all staged items to the database and commits.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, MapDbItem> items;
+            List<MapDbItem> historyItems;
+            synchronized (stagingLock) {
+                flushRequested = false;
+                if (stagedItems.isEmpty() && stagedHistory.isEmpty()) {
+                    return;
+                }
+                items = stagedItems;
+                historyItems = stagedHistory;
+                flushingItems = items;
+                stagedItems = new HashMap<>();
+                stagedHistory = new ArrayList<>();
+            }
+
+            long start = System.nanoTime();
+            int dropped = 0;
+            try {
+                map.putAll(items);
+                MapDbItemHistory history = this.history;
+                if (history != null) {
+                    historyItems.forEach(history::put);
+                }
+                db.commit();
+            } catch (RuntimeException | IOError e) {
+                logger.debug("Failed to commit {} items to the MapDB database, committing them one at a time: {}",
+                        items.size(), e.getMessage());
+                rollback();
+                dropped = commitIndividually(items, historyItems);
+            } finally {
+                synchronized (stagingLock) {
+                    flushingItems = new HashMap<>();
+                }
+            }
+            long duration = System.nanoTime() - start;
+
+            synchronized (stagingLock) {
+                commits++;
+                committedItems += items.size() - dropped;
+                lastCommitNanos = duration;
+                maxCommitNanos = Math.max(maxCommitNanos, duration);
+                totalCommitNanos += duration;
+            }
+            logger.trace("Committed {} items ({} history records) in {} ms", items.size(), historyItems.size(),
+                    TimeUnit.NANOSECONDS.toMillis(duration));
+        }
+    }
+
+    private void rollback() {
+        try {
+            db.rollback();
+        } catch (RuntimeException e) {
+            logger.debug("Failed to roll back the MapDB transaction: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Commits the last value and the history records of each item separately and drops the items that fail.
+     *
+     * @return the number of dropped items
+     */
+    private int commitIndividually(Map<String, MapDbItem> items, List<MapDbItem> historyItems) {
+        Map<String, List<MapDbItem>> historyByName = new LinkedHashMap<>();
+        for (MapDbItem item : historyItems) {
+            historyByName.computeIfAbsent(item.getName(), name -> new ArrayList<>()).add(item);
+        }
+        Set<String> names = new LinkedHashSet<>(items.keySet());
+        names.addAll(historyByName.keySet());
+
+        int dropped = 0;
+        for (String name : names) {
+            try {
+                MapDbItem item = items.get(name);
+                if (item != null) {
+                    map.put(name, item);
+                }
+                MapDbItemHistory history = this.history;
+                if (history != null) {
+                    historyByName.getOrDefault(name, Collections.emptyList()).forEach(history::put);
+                }
+                db.commit();
+            } catch (RuntimeException | IOError e) {
+                logger.warn("Dropping the update of item '{}', it cannot be stored in the MapDB database: {}", name,
+                        e.getMessage());
+                rollback();
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    private int getQueueDepthUnsynchronized() {
+        return Math.max(stagedItems.size(), stagedHistory.size());
+    }
+
+    /**
+     * Returns the number of staged items waiting for the next commit.
+     */
+    public int getQueueDepth() {
+        synchronized (stagingLock) {
+            return getQueueDepthUnsynchronized();
+        }
+    }
+
+    public long getCommitCount() {
+        synchronized (stagingLock) {
+            return commits;
+        }
+    }
+
+    public long getCoalescedCount() {
+        synchronized (stagingLock) {
+            return coalescedItems;
+        }
+    }
+
+    public long getLastCommitLatencyMillis() {
+        synchronized (stagingLock) {
+            return TimeUnit.NANOSECONDS.toMillis(lastCommitNanos);
+        }
+    }
+
+    public long getMaxCommitLatencyMillis() {
+        synchronized (stagingLock) {
+            return TimeUnit.NANOSECONDS.toMillis(maxCommitNanos);
+        }
+    }
+
+    public long getAverageCommitLatencyMillis() {
+        synchronized (stagingLock) {
+            return commits == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalCommitNanos / commits);
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (stagingLock) {
+            return "commits=" + commits + ", committedItems=" + committedItems + ", coalescedItems="
+                    + coalescedItems + ", queueDepth=" + getQueueDepthUnsynchronized() + ", avgCommitMillis="
+                    + (commits == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalCommitNanos / commits))
+                    + ", maxCommitMillis=" + TimeUnit.NANOSECONDS.toMillis(maxCommitNanos);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Configuration of the {@link MapDbPersistenceService}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbConfiguration {
+    public static final String MODE_LAST_VALUE = "lastvalue";
+    public static final String MODE_TIME_SERIES = "timeseries";
+
+    /** Either {@link #MODE_LAST_VALUE} (default) or {@link #MODE_TIME_SERIES} */
+    public String mode = MODE_LAST_VALUE;
+
+    /** Maximum time in milliseconds a stored state may wait for the next database commit */
+    public Integer commitIntervalMillis = 1000;
+
+    /** Number of staged states that triggers a commit before the commit interval has elapsed */
+    public Integer commitBatchSize = 500;
+
+    /** Time-series mode: records older than this are removed during compaction. 0 keeps everything. */
+    public Integer retentionDays = 0;
+
+    /** Time-series mode: maximum number of records kept per item. 0 means unlimited. */
+    public Integer maxEntriesPerItem = 0;
+
+    /** Time-series mode: interval in hours between two retention/compaction runs. */
+    public Integer compactionIntervalHours = 24;
+
+    public boolean isTimeSeries() {
+        return MODE_TIME_SERIES.equalsIgnoreCase(mode);
+    }
+}
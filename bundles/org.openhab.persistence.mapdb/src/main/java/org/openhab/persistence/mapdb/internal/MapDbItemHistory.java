@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.mapdb.BTreeKeySerializer;
+import org.mapdb.DB;
+import org.mapdb.Fun;
+import org.mapdb.Fun.Tuple2;
+
+/**
+ * Time-ordered storage of item states. Every record is keyed by (item name, epoch millis),
+ * so all records of one item are adjacent in the underlying B-tree and date range queries
+ * are simple range scans.
+ * <p>
+ * Count, earliest and latest timestamp of each item are kept in a separate map, which is updated with every
+ * record, so they can be looked up without scanning the records.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemHistory {
+    static final String HISTORY_MAP_NAME = "itemHistory";
+    static final String INFO_MAP_NAME = "itemHistoryInfo";
+
+    private final NavigableMap<Tuple2<String, Long>, MapDbItem> history;
+
+    /** count, earliest and latest timestamp of the records of each item */
+    private final Map<String, long[]> info;
+
+    public MapDbItemHistory(DB db) {
+        boolean buildInfo = db.exists(HISTORY_MAP_NAME) && !db.exists(INFO_MAP_NAME);
+        this.history = db.createTreeMap(HISTORY_MAP_NAME).keySerializer(BTreeKeySerializer.TUPLE2)
+                .valueSerializer(new MapDbItemSerializer()).<Tuple2<String, Long>, MapDbItem> makeOrGet();
+        this.info = db.createTreeMap(INFO_MAP_NAME).<String, long[]> makeOrGet();
+        if (buildInfo) {
+            // history written by an earlier version, build the info map with a single pass over all records
+            history.keySet().forEach(key -> addInfo(key.a, key.b));
+        }
+    }
+
+    public void put(MapDbItem item) {
+        String name = item.getName();
+        long timestamp = item.getTimestamp().getTime();
+        if (history.put(Fun.t2(name, timestamp), item) == null) {
+            addInfo(name, timestamp);
+        }
+    }
+
+    private void addInfo(String name, long timestamp) {
+        long[] values = info.get(name);
+        info.put(name, values == null ? new long[] { 1, timestamp, timestamp }
+                : new long[] { values[0] + 1, Math.min(values[1], timestamp), Math.max(values[2], timestamp) });
+    }
+
+    /**
+     * Returns the records of the given item between begin and end (both inclusive) in the requested order.
+     * The returned collection is a live view, records are only read while iterating.
+     */
+    public Collection<MapDbItem> range(String name, @Nullable Date begin, @Nullable Date end, Ordering ordering) {
+        long from = begin == null ? Long.MIN_VALUE : begin.getTime();
+        long to = end == null ? Long.MAX_VALUE : end.getTime();
+        if (from > to) {
+            return Collections.emptyList();
+        }
+        NavigableMap<Tuple2<String, Long>, MapDbItem> range = history.subMap(Fun.t2(name, from), true,
+                Fun.t2(name, to), true);
+        return ordering == Ordering.DESCENDING ? range.descendingMap().values() : range.values();
+    }
+
+    /**
+     * Returns count, earliest and latest timestamp of the records of the given item, null if there are none.
+     */
+    public @Nullable MapDbItemInfo info(String name) {
+        long[] values = info.get(name);
+        if (values == null) {
+            return null;
+        }
+        return new MapDbItemInfo(name, (int) values[0], values[1], values[2]);
+    }
+
+    /**
+     * Removes records of the given item that are older than minTimestamp and
+     * keeps at most maxEntries of the most recent records.
+     *
+     * @param maxEntries Maximum number of records, 0 for unlimited
+     * @return The number of removed records
+     */
+    public int trim(String name, long minTimestamp, int maxEntries) {
+        long[] values = info.get(name);
+        if (values == null) {
+            return 0;
+        }
+        int removed = 0;
+        NavigableMap<Tuple2<String, Long>, MapDbItem> outdated = history.subMap(Fun.t2(name, Long.MIN_VALUE), true,
+                Fun.t2(name, minTimestamp), false);
+        for (Iterator<?> it = outdated.keySet().iterator(); it.hasNext();) {
+            it.next();
+            it.remove();
+            removed++;
+        }
+        NavigableMap<Tuple2<String, Long>, MapDbItem> all = history.subMap(Fun.t2(name, Long.MIN_VALUE), true,
+                Fun.t2(name, Long.MAX_VALUE), true);
+        if (maxEntries > 0) {
+            long excess = values[0] - removed - maxEntries;
+            for (Iterator<?> it = all.keySet().iterator(); excess > 0 && it.hasNext(); excess--) {
+                it.next();
+                it.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            if (all.isEmpty()) {
+                info.remove(name);
+            } else {
+                info.put(name, new long[] { values[0] - removed, all.firstKey().b, values[2] });
+            }
+        }
+        return removed;
+    }
+}
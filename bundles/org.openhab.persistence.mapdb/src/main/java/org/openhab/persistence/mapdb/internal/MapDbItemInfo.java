@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.Date;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.persistence.PersistenceItemInfo;
+
+/**
+ * Immutable entry of the in-memory item info index of the {@link MapDbPersistenceService}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemInfo implements PersistenceItemInfo {
+    private final String name;
+    private final int count;
+    private final long earliest;
+    private final long latest;
+
+    public MapDbItemInfo(String name, int count, long earliest, long latest) {
+        this.name = name;
+        this.count = count;
+        this.earliest = earliest;
+        this.latest = latest;
+    }
+
+    /**
+     * Returns a new info with the given stored timestamp added.
+     *
+     * @param countAll true to count all records (time series), false if only the last record is kept
+     */
+    public MapDbItemInfo add(long timestamp, boolean countAll) {
+        return new MapDbItemInfo(name, countAll ? count + 1 : 1, countAll ? Math.min(earliest, timestamp) : timestamp,
+                Math.max(latest, timestamp));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public @Nullable Integer getCount() {
+        return count;
+    }
+
+    @Override
+    public @Nullable Date getEarliest() {
+        return new Date(earliest);
+    }
+
+    @Override
+    public @Nullable Date getLatest() {
+        return new Date(latest);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof MapDbItemInfo)) {
+            return false;
+        }
+        MapDbItemInfo other = (MapDbItemInfo) obj;
+        return name.equals(other.name) && count == other.count && earliest == other.earliest
+                && latest == other.latest;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": count=" + count + ", earliest=" + earliest + ", latest=" + latest;
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.TypeParser;
+import org.eclipse.smarthome.core.types.UnDefType;
+import org.mapdb.Serializer;
+
+/**
+ * A compact binary MapDB {@link Serializer} for {@link MapDbItem}s.
+ * <p>
+ * The record consists of the item name, the timestamp and a type tag followed by the state.
+ * The most common state types are encoded with their primitive values, all other states
+ * fall back to the class name and the full string representation, like the {@link StateTypeAdapter} does.
+ * Strings are written as length prefixed UTF-8 bytes, so that they are not limited to 64 KB like
+ * {@link DataOutput#writeUTF(String)}. Large states like images are stored as well.
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbItemSerializer implements Serializer<MapDbItem>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    static final byte TYPE_STRING = 0;
+    static final byte TYPE_DECIMAL = 1;
+    static final byte TYPE_ONOFF = 2;
+    static final byte TYPE_PERCENT = 3;
+    static final byte TYPE_HSB = 4;
+    static final byte TYPE_DATETIME = 5;
+
+    @Override
+    public void serialize(DataOutput out, MapDbItem item) throws IOException {
+        writeString(out, item.getName());
+        out.writeLong(item.getTimestamp().getTime());
+        State state = item.getState();
+        // HSBType extends PercentType extends DecimalType, so the order of the checks matters
+        if (state instanceof HSBType) {
+            HSBType hsb = (HSBType) state;
+            out.writeByte(TYPE_HSB);
+            writeDecimal(out, hsb.getHue().toBigDecimal());
+            writeDecimal(out, hsb.getSaturation().toBigDecimal());
+            writeDecimal(out, hsb.getBrightness().toBigDecimal());
+        } else if (state instanceof PercentType) {
+            out.writeByte(TYPE_PERCENT);
+            writeDecimal(out, ((PercentType) state).toBigDecimal());
+        } else if (state instanceof DecimalType) {
+            out.writeByte(TYPE_DECIMAL);
+            writeDecimal(out, ((DecimalType) state).toBigDecimal());
+        } else if (state instanceof OnOffType) {
+            out.writeByte(TYPE_ONOFF);
+            out.writeBoolean(state == OnOffType.ON);
+        } else if (state instanceof DateTimeType) {
+            ZonedDateTime dateTime = ((DateTimeType) state).getZonedDateTime();
+            out.writeByte(TYPE_DATETIME);
+            out.writeLong(dateTime.toInstant().toEpochMilli());
+            writeString(out, dateTime.getZone().getId());
+        } else {
+            out.writeByte(TYPE_STRING);
+            writeString(out, state.getClass().getName());
+            writeString(out, state.toFullString());
+        }
+    }
+
+    @Override
+    public MapDbItem deserialize(DataInput in, int available) throws IOException {
+        MapDbItem item = new MapDbItem();
+        item.setName(readString(in));
+        item.setTimestamp(new Date(in.readLong()));
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_HSB:
+                item.setState(new HSBType(new DecimalType(readDecimal(in)), new PercentType(readDecimal(in)),
+                        new PercentType(readDecimal(in))));
+                break;
+            case TYPE_PERCENT:
+                item.setState(new PercentType(readDecimal(in)));
+                break;
+            case TYPE_DECIMAL:
+                item.setState(new DecimalType(readDecimal(in)));
+                break;
+            case TYPE_ONOFF:
+                item.setState(in.readBoolean() ? OnOffType.ON : OnOffType.OFF);
+                break;
+            case TYPE_DATETIME:
+                long epochMillis = in.readLong();
+                ZoneId zone = ZoneId.of(readString(in));
+                item.setState(new DateTimeType(ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone)));
+                break;
+            case TYPE_STRING:
+                item.setState(parseState(readString(in), readString(in)));
+                break;
+            default:
+                throw new IOException("Unknown state type tag " + type);
+        }
+        return item;
+    }
+
+    @Override
+    public int fixedSize() {
+        return -1;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        BigInteger unscaled = value.unscaledValue();
+        out.writeInt(value.scale());
+        if (unscaled.bitLength() < Long.SIZE) {
+            out.writeShort(0);
+            out.writeLong(unscaled.longValue());
+        } else {
+            byte[] bytes = unscaled.toByteArray();
+            out.writeShort(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        int scale = in.readInt();
+        int length = in.readUnsignedShort();
+        if (length == 0) {
+            return BigDecimal.valueOf(in.readLong(), scale);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    private static State parseState(String typeName, String value) throws IOException {
+        try {
+            @SuppressWarnings("unchecked")
+            Class<? extends State> stateType = (Class<? extends State>) Class.forName(typeName);
+            List<Class<? extends State>> types = Collections.singletonList(stateType);
+            State state = TypeParser.parseState(types, value);
+            return state == null ? UnDefType.UNDEF : state;
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Couldn't deserialize state '" + value + "' of type " + typeName, e);
+        }
+    }
+}
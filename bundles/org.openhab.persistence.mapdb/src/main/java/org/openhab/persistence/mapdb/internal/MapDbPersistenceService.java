@@ -13,22 +13,32 @@
 package org.openhab.persistence.mapdb.internal;
 
 import java.io.File;
+import java.io.IOError;
+import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.config.core.ConfigurableService;
+import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Operator;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
 import org.eclipse.smarthome.core.persistence.PersistenceItemInfo;
 import org.eclipse.smarthome.core.persistence.PersistenceService;
@@ -37,7 +47,10 @@ import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.osgi.framework.Constants;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,8 +66,15 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to Eclipse SmartHome
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
-public class MapDbPersistenceService implements QueryablePersistenceService {
+@Component(service = { PersistenceService.class,
+        QueryablePersistenceService.class }, configurationPid = MapDbPersistenceService.CONFIG_PID, property = {
+                Constants.SERVICE_PID + "=" + MapDbPersistenceService.CONFIG_PID,
+                ConfigurableService.SERVICE_PROPERTY_DESCRIPTION_URI + "=persistence:mapdb",
+                ConfigurableService.SERVICE_PROPERTY_CATEGORY + "=persistence",
+                ConfigurableService.SERVICE_PROPERTY_LABEL + "=MapDB Persistence" })
+public class MapDbPersistenceService implements QueryablePersistenceService, ConfigurableService {
+
+    static final String CONFIG_PID = "org.openhab.mapdb";
 
     private static final String SERVICE_NAME = "mapdb";
 
@@ -62,25 +82,45 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String DB_FILE_NAME = "storage.mapdb";
 
-    private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
+    /** map of the last stored item states */
+    private static final String ITEMS_MAP_NAME = "items";
 
-    @NonNullByDefault({})
-    private ExecutorService threadPool;
+    /** map of the last stored item states as JSON, used by earlier versions of this service */
+    private static final String LEGACY_ITEMS_MAP_NAME = "itemStore";
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
     /** holds the local instance of the MapDB database */
     @NonNullByDefault({})
     private DB db;
     @NonNullByDefault({})
-    private Map<String, String> map;
+    private Map<String, MapDbItem> map;
+
+    /** only set in time series mode */
+    private @Nullable MapDbItemHistory history;
+
+    @NonNullByDefault({})
+    private MapDbCommitter committer;
+
+    /** count, earliest and latest timestamp of all stored items, kept up to date by {@link #store(Item, String)} */
+    private final Map<String, MapDbItemInfo> itemInfo = new ConcurrentHashMap<>();
+
+    private MapDbConfiguration config = new MapDbConfiguration();
+
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+    private @Nullable ScheduledFuture<?> compactionJob;
 
+    /** only used to read the JSON documents of earlier versions */
     private transient Gson mapper = new GsonBuilder()
             .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
             .create();
 
-    public void activate() {
+    @Activate
+    public void activate(Map<String, Object> configuration) {
         logger.debug("MapDB persistence service is being activated");
 
-        threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+        config = new Configuration(configuration).as(MapDbConfiguration.class);
 
         File folder = new File(DB_FOLDER_NAME);
         if (!folder.exists()) {
@@ -92,17 +132,85 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         }
 
         File dbFile = new File(DB_FOLDER_NAME, DB_FILE_NAME);
-        db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-        map = db.createTreeMap("itemStore").makeOrGet();
-        logger.debug("MapDB persistence service is now activated");
+        // MapDB stores the custom value serializers in its catalog and loads them via the context class loader
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(getClass().getClassLoader());
+        try {
+            db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
+            map = db.createTreeMap(ITEMS_MAP_NAME).valueSerializer(new MapDbItemSerializer()).makeOrGet();
+            migrateLegacyItems();
+            if (config.isTimeSeries()) {
+                history = new MapDbItemHistory(db);
+            }
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+        buildItemInfo();
+        committer = new MapDbCommitter(db, map, history, scheduler, config.commitBatchSize);
+        committer.start(config.commitIntervalMillis);
+        if (history != null) {
+            long interval = Math.max(1, config.compactionIntervalHours);
+            compactionJob = scheduler.scheduleWithFixedDelay(this::compact, interval, interval, TimeUnit.HOURS);
+        }
+        logger.debug("MapDB persistence service is now activated in {} mode", config.mode);
+    }
+
+    /**
+     * Fills the item info index from the database. The history keeps the info of each item, so no records are
+     * read.
+     */
+    private void buildItemInfo() {
+        itemInfo.clear();
+        MapDbItemHistory history = this.history;
+        for (MapDbItem item : map.values()) {
+            MapDbItemInfo info = history != null ? history.info(item.getName()) : null;
+            if (info == null) {
+                long timestamp = item.getTimestamp().getTime();
+                info = new MapDbItemInfo(item.getName(), 1, timestamp, timestamp);
+            }
+            itemInfo.put(item.getName(), info);
+        }
+    }
+
+    /**
+     * Converts the JSON documents written by earlier versions of this service to the binary format.
+     */
+    private void migrateLegacyItems() {
+        if (!db.exists(LEGACY_ITEMS_MAP_NAME)) {
+            return;
+        }
+        Map<String, String> legacyMap = db.getTreeMap(LEGACY_ITEMS_MAP_NAME);
+        int migrated = 0;
+        for (Map.Entry<String, String> entry : legacyMap.entrySet()) {
+            Optional<MapDbItem> item = deserialize(entry.getValue());
+            if (item.isPresent() && !map.containsKey(entry.getKey())) {
+                map.put(entry.getKey(), item.get());
+                migrated++;
+            }
+        }
+        db.delete(LEGACY_ITEMS_MAP_NAME);
+        db.commit();
+        logger.info("Migrated {} item states of the MapDB persistence service to the binary format", migrated);
     }
 
+    @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        ScheduledFuture<?> compactionJob = this.compactionJob;
+        if (compactionJob != null) {
+            compactionJob.cancel(false);
+            this.compactionJob = null;
+        }
+        if (committer != null) {
+            committer.stop();
+            logger.debug("MapDB commit statistics: {}", committer);
+            committer = null;
+        }
+        history = null;
         if (db != null) {
             db.close();
         }
-        threadPool.shutdown();
     }
 
     @Override
@@ -117,10 +225,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream()
-                .map(this::deserialize)
-                .flatMap(MapDbPersistenceService::streamOptional)
-                .collect(Collectors.<PersistenceItemInfo>toSet());
+        return new HashSet<>(itemInfo.values());
     }
 
     @Override
@@ -145,27 +250,105 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(alias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(alias, json);
-        commit();
+        committer.store(mItem);
+        boolean timeSeries = history != null;
+        long timestamp = mItem.getTimestamp().getTime();
+        itemInfo.compute(alias, (name, info) -> info == null ? new MapDbItemInfo(name, 1, timestamp, timestamp)
+                : info.add(timestamp, timeSeries));
         logger.debug("Stored '{}' with state '{}' in MapDB database", alias, state.toString());
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        String itemName = filter.getItemName();
+        if (itemName == null) {
             return Collections.emptyList();
         }
-        Optional<MapDbItem> item = deserialize(json);
-        if (!item.isPresent()) {
+        MapDbItemHistory history = this.history;
+        if (history != null) {
+            return queryHistory(history, itemName, filter);
+        }
+        MapDbItem item = committer.getStaged(itemName);
+        if (item == null) {
+            item = map.get(itemName);
+        }
+        if (item == null) {
             return Collections.emptyList();
         }
-        return Collections.singletonList(item.get());
+        return Collections.singletonList(item);
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    private List<HistoricItem> queryHistory(MapDbItemHistory history, String itemName, FilterCriteria filter) {
+        flushPending();
+        long skip = (long) filter.getPageNumber() * filter.getPageSize();
+        return history.range(itemName, filter.getBeginDate(), filter.getEndDate(), filter.getOrdering()).stream()
+                .filter(item -> matchesState(item.getState(), filter))
+                .skip(skip)
+                .limit(filter.getPageSize())
+                .collect(Collectors.<HistoricItem>toList());
+    }
+
+    private static boolean matchesState(State state, FilterCriteria filter) {
+        State filterState = filter.getState();
+        Operator operator = filter.getOperator();
+        if (filterState == null || operator == null) {
+            return true;
+        }
+        if (operator == Operator.EQ) {
+            return state.equals(filterState);
+        }
+        if (operator == Operator.NEQ) {
+            return !state.equals(filterState);
+        }
+        if (!(state instanceof DecimalType) || !(filterState instanceof DecimalType)) {
+            return false;
+        }
+        BigDecimal value = ((DecimalType) state).toBigDecimal();
+        int result = value.compareTo(((DecimalType) filterState).toBigDecimal());
+        switch (operator) {
+            case GT:
+                return result > 0;
+            case GTE:
+                return result >= 0;
+            case LT:
+                return result < 0;
+            case LTE:
+                return result <= 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Applies the configured retention to all items of the time series and compacts the database file.
+     */
+    private void compact() {
+        MapDbItemHistory history = this.history;
+        if (history == null) {
+            return;
+        }
+        long minTimestamp = config.retentionDays > 0
+                ? System.currentTimeMillis() - TimeUnit.DAYS.toMillis(config.retentionDays)
+                : Long.MIN_VALUE;
+        try {
+            // No commit of the committer may run in between, it would commit or roll back a part of the trimming
+            int removed = committer.runExclusively(() -> {
+                int trimmed = 0;
+                for (String name : map.keySet()) {
+                    trimmed += history.trim(name, minTimestamp, config.maxEntriesPerItem);
+                    itemInfo.computeIfPresent(name, (key, info) -> {
+                        MapDbItemInfo trimmedInfo = history.info(key);
+                        return trimmedInfo != null ? trimmedInfo : info;
+                    });
+                }
+                db.commit();
+                db.compact();
+                return trimmed;
+            });
+            logger.debug("MapDB compaction removed {} outdated records", removed);
+        } catch (RuntimeException | IOError e) {
+            logger.warn("MapDB compaction failed: {}", e.getMessage());
+        }
     }
 
     private Optional<MapDbItem> deserialize(String json) {
@@ -177,14 +360,12 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         return Optional.of(item);
     }
 
-    private void commit() {
-        threadPool.submit(() -> db.commit());
-    }
-
-    private static <T> Stream<T> streamOptional(Optional<T> opt) {
-        if (!opt.isPresent()) {
-            return Stream.empty();
+    /**
+     * Makes the staged states visible to queries that scan the database.
+     */
+    private void flushPending() {
+        if (committer.getQueueDepth() > 0) {
+            committer.flush();
         }
-        return Stream.of(opt.get());
     }
 }
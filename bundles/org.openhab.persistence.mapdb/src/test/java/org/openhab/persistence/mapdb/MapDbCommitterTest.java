@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOError;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.openhab.persistence.mapdb.internal.MapDbCommitter;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemHistory;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbCommitterTest {
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    DB db;
+    Map<String, MapDbItem> map;
+    MapDbItemHistory history;
+    MapDbCommitter committer;
+
+    @Before
+    public void setUp() {
+        db = DBMaker.newMemoryDB().make();
+        map = db.createTreeMap("items").makeOrGet();
+        history = new MapDbItemHistory(db);
+        committer = new MapDbCommitter(db, map, history, scheduler, 100);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+        db.close();
+    }
+
+    private static MapDbItem item(String name, long timestamp) {
+        MapDbItem item = new MapDbItem();
+        item.setName(name);
+        item.setState(new DecimalType(timestamp));
+        item.setTimestamp(new Date(timestamp));
+        return item;
+    }
+
+    @Test
+    public void flushShouldCoalesceLastValuesAndKeepTheHistory() {
+        committer.store(item("a", 10));
+        committer.store(item("a", 20));
+        committer.store(item("b", 30));
+
+        assertThat(committer.getQueueDepth(), is(3));
+        assertThat(map.isEmpty(), is(true));
+        assertThat(committer.getStaged("a").getTimestamp().getTime(), is(20L));
+
+        committer.flush();
+
+        assertThat(committer.getQueueDepth(), is(0));
+        assertThat(committer.getStaged("a"), is(nullValue()));
+        assertThat(map.get("a").getTimestamp().getTime(), is(20L));
+        assertThat(map.get("b").getTimestamp().getTime(), is(30L));
+        assertThat(history.range("a", null, null, Ordering.ASCENDING).size(), is(2));
+        assertThat(committer.getCommitCount(), is(1L));
+        assertThat(committer.getCoalescedCount(), is(1L));
+    }
+
+    @Test
+    public void failedBatchShouldBeCommittedItemByItem() {
+        DB failingDb = mock(DB.class);
+        doThrow(new IllegalStateException("disk full")).doNothing().when(failingDb).commit();
+        committer = new MapDbCommitter(failingDb, map, history, scheduler, 100);
+
+        committer.store(item("a", 10));
+        committer.store(item("a", 20));
+        committer.store(item("b", 30));
+        committer.flush();
+
+        verify(failingDb).rollback();
+        verify(failingDb, times(3)).commit();
+        assertThat(committer.getQueueDepth(), is(0));
+        assertThat(map.get("a").getTimestamp().getTime(), is(20L));
+        assertThat(map.get("b").getTimestamp().getTime(), is(30L));
+        assertThat(history.range("a", null, null, Ordering.ASCENDING).size(), is(2));
+    }
+
+    @Test
+    public void failingItemShouldBeDroppedWithoutBlockingLaterBatches() {
+        DB failingDb = mock(DB.class);
+        doAnswer(invocation -> {
+            // an item that cannot be serialized, the rollback discards it
+            if (map.remove("bad") != null) {
+                throw new IOError(new IOException("cannot serialize"));
+            }
+            return null;
+        }).when(failingDb).commit();
+        committer = new MapDbCommitter(failingDb, map, null, scheduler, 100);
+
+        committer.store(item("a", 10));
+        committer.store(item("bad", 20));
+        committer.flush();
+
+        assertThat(committer.getQueueDepth(), is(0));
+        assertThat(committer.getStaged("bad"), is(nullValue()));
+        assertThat(map.get("a").getTimestamp().getTime(), is(10L));
+        assertThat(map.containsKey("bad"), is(false));
+
+        committer.store(item("c", 30));
+        committer.flush();
+
+        assertThat(committer.getQueueDepth(), is(0));
+        assertThat(map.get("c").getTimestamp().getTime(), is(30L));
+        assertThat(committer.getCommitCount(), is(2L));
+    }
+
+    @Test
+    public void runExclusivelyShouldFlushBeforeTheTask() {
+        committer.store(item("a", 10));
+
+        int size = committer.runExclusively(() -> map.size());
+
+        assertThat(size, is(1));
+        assertThat(committer.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void stopShouldFlushStagedItems() {
+        committer.start(60000);
+        committer.store(item("a", 10));
+        committer.stop();
+
+        assertThat(map.get("a").getTimestamp().getTime(), is(10L));
+    }
+}
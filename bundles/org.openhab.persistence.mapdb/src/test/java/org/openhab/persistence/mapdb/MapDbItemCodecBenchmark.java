@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.types.State;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemSerializer;
+import org.openhab.persistence.mapdb.internal.StateTypeAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Compares the Gson/JSON encoding of earlier versions with the binary {@link MapDbItemSerializer}.
+ * Run the main method from the IDE or with the test classpath, it is not part of the unit tests.
+ *
+ * @author agent - Initial contribution
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapDbItemCodecBenchmark {
+    @Param({ "decimal", "onoff", "hsb" })
+    public String stateType = "decimal";
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
+            .create();
+    private final MapDbItemSerializer serializer = new MapDbItemSerializer();
+
+    private MapDbItem item = new MapDbItem();
+    private String json = "";
+    private byte[] binary = new byte[0];
+
+    @Setup
+    public void setUp() throws IOException {
+        State state;
+        switch (stateType) {
+            case "onoff":
+                state = OnOffType.ON;
+                break;
+            case "hsb":
+                state = HSBType.GREEN;
+                break;
+            default:
+                state = new DecimalType("21.37");
+        }
+        item.setName("LivingRoom_Temperature");
+        item.setState(state);
+        item.setTimestamp(new Date());
+        json = gson.toJson(item);
+        binary = writeBinary();
+    }
+
+    @Benchmark
+    public String writeJson() {
+        return gson.toJson(item);
+    }
+
+    @Benchmark
+    public byte[] writeBinary() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        serializer.serialize(new DataOutputStream(bytes), item);
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public MapDbItem readJson() {
+        return gson.fromJson(json, MapDbItem.class);
+    }
+
+    @Benchmark
+    public MapDbItem readBinary() throws IOException {
+        return serializer.deserialize(new DataInputStream(new ByteArrayInputStream(binary)), binary.length);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MapDbItemCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
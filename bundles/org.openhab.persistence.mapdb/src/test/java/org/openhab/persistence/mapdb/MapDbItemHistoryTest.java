@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemHistory;
+import org.openhab.persistence.mapdb.internal.MapDbItemInfo;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbItemHistoryTest {
+    DB db;
+    MapDbItemHistory history;
+
+    @Before
+    public void setUp() {
+        db = DBMaker.newMemoryDB().make();
+        history = new MapDbItemHistory(db);
+        history.put(item("a", 10));
+        history.put(item("a", 20));
+        history.put(item("a", 30));
+        history.put(item("b", 15));
+    }
+
+    private static MapDbItem item(String name, long timestamp) {
+        MapDbItem item = new MapDbItem();
+        item.setName(name);
+        item.setState(new DecimalType(timestamp));
+        item.setTimestamp(new Date(timestamp));
+        return item;
+    }
+
+    private List<String> range(String name, Date begin, Date end, Ordering ordering) {
+        return history.range(name, begin, end, ordering).stream()
+                .map(item -> item.getName() + item.getTimestamp().getTime()).collect(Collectors.toList());
+    }
+
+    @Test
+    public void rangeShouldOnlyReturnRecordsOfTheItemWithinTheBounds() {
+        assertThat(range("a", null, null, Ordering.ASCENDING), is(Arrays.asList("a10", "a20", "a30")));
+        assertThat(range("a", new Date(20), new Date(30), Ordering.ASCENDING), is(Arrays.asList("a20", "a30")));
+        assertThat(range("a", null, new Date(25), Ordering.DESCENDING), is(Arrays.asList("a20", "a10")));
+        assertThat(history.range("a", new Date(30), new Date(10), Ordering.ASCENDING).isEmpty(), is(true));
+    }
+
+    @Test
+    public void trimShouldApplyRetentionAndMaximumEntries() {
+        assertThat(history.trim("a", 15, 0), is(1));
+        assertThat(history.trim("a", Long.MIN_VALUE, 1), is(1));
+        assertThat(range("a", null, null, Ordering.ASCENDING), is(Arrays.asList("a30")));
+        assertThat(range("b", null, null, Ordering.ASCENDING), is(Arrays.asList("b15")));
+    }
+
+    @Test
+    public void infoShouldReflectCountAndBoundsOfTheRecords() {
+        MapDbItemInfo info = history.info("a");
+        assertThat(info.getCount(), is(3));
+        assertThat(info.getEarliest(), is(new Date(10)));
+        assertThat(info.getLatest(), is(new Date(30)));
+        assertThat(history.info("c"), is(nullValue()));
+
+        assertThat(info.add(40, true), is(new MapDbItemInfo("a", 4, 10, 40)));
+        assertThat(info.add(40, false), is(new MapDbItemInfo("a", 1, 40, 40)));
+    }
+
+    @Test
+    public void infoShouldBeUpdatedByPutAndTrim() {
+        history.put(item("a", 30)); // same record again
+        history.put(item("a", 5));
+        assertThat(history.info("a"), is(new MapDbItemInfo("a", 4, 5, 30)));
+
+        history.trim("a", 15, 0);
+        assertThat(history.info("a"), is(new MapDbItemInfo("a", 2, 20, 30)));
+        history.trim("a", Long.MIN_VALUE, 1);
+        assertThat(history.info("a"), is(new MapDbItemInfo("a", 1, 30, 30)));
+        history.trim("a", 100, 0);
+        assertThat(history.info("a"), is(nullValue()));
+        assertThat(history.info("b"), is(new MapDbItemInfo("b", 1, 15, 15)));
+    }
+
+    @Test
+    public void infoShouldBeBuiltForHistoryOfEarlierVersions() {
+        db.delete("itemHistoryInfo");
+        MapDbItemHistory reopened = new MapDbItemHistory(db);
+        assertThat(reopened.info("a"), is(new MapDbItemInfo("a", 3, 10, 30)));
+        assertThat(reopened.info("b"), is(new MapDbItemInfo("b", 1, 15, 15)));
+    }
+}
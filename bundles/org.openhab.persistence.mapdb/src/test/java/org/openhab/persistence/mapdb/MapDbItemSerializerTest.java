@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.RawType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemSerializer;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbItemSerializerTest {
+    MapDbItemSerializer serializer = new MapDbItemSerializer();
+
+    @Test
+    public void readWriteRoundtripShouldRecreateTheWrittenItem() throws IOException {
+        assertThat(roundtrip(OnOffType.ON), is(equalTo(OnOffType.ON)));
+        assertThat(roundtrip(OnOffType.OFF), is(equalTo(OnOffType.OFF)));
+        assertThat(roundtrip(PercentType.HUNDRED), is(equalTo(PercentType.HUNDRED)));
+        assertThat(roundtrip(HSBType.GREEN), is(equalTo(HSBType.GREEN)));
+        assertThat(roundtrip(new DecimalType("-12.345")), is(equalTo(new DecimalType("-12.345"))));
+        DecimalType huge = new DecimalType(new BigDecimal("123456789012345678901234567890.5"));
+        assertThat(roundtrip(huge), is(equalTo(huge)));
+        DateTimeType dateTime = new DateTimeType("2019-03-01T10:15:30.123+01:00");
+        assertThat(roundtrip(dateTime), is(equalTo(dateTime)));
+        assertThat(roundtrip(StringType.valueOf("test")), is(equalTo(StringType.valueOf("test"))));
+    }
+
+    @Test
+    public void largeStatesShouldBeWritten() throws IOException {
+        char[] chars = new char[70000];
+        Arrays.fill(chars, '\u00e4'); // two UTF-8 bytes each
+        StringType string = StringType.valueOf(new String(chars));
+        assertThat(roundtrip(string), is(equalTo(string)));
+
+        byte[] image = new byte[100000];
+        for (int i = 0; i < image.length; i++) {
+            image[i] = (byte) i;
+        }
+        RawType raw = new RawType(image, "image/png");
+        assertThat(roundtrip(raw), is(equalTo(raw)));
+    }
+
+    private State roundtrip(State state) throws IOException {
+        MapDbItem item = new MapDbItem();
+        item.setName("item");
+        item.setState(state);
+        item.setTimestamp(new Date(1234));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        serializer.serialize(new DataOutputStream(bytes), item);
+        byte[] data = bytes.toByteArray();
+        MapDbItem result = serializer.deserialize(new DataInputStream(new ByteArrayInputStream(data)), data.length);
+
+        assertThat(result.getName(), is("item"));
+        assertThat(result.getTimestamp().getTime(), is(1234L));
+        return result.getState();
+    }
+}
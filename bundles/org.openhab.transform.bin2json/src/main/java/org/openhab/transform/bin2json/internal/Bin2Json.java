@@ -14,16 +14,22 @@ package org.openhab.transform.bin2json.internal;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 import org.eclipse.smarthome.core.util.HexUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
 import com.igormaznitsa.jbbp.JBBPParser;
 import com.igormaznitsa.jbbp.exceptions.JBBPException;
 import com.igormaznitsa.jbbp.model.JBBPAbstractArrayField;
@@ -66,11 +72,19 @@ import com.igormaznitsa.jbbp.model.JBBPFieldUShort;
  * json.toString() = {"a":3,"b":-6,"c":255}
  * </pre>
  *
+ * <p>
+ * {@link #convertToString(String)} writes the JSON directly, without building the intermediate {@link JsonObject}.
+ * The parser rule is compiled only once, instances can be reused and shared between threads.
+ *
  * @author Pauli Anttila - Initial contribution
  *
  */
 public class Bin2Json {
 
+    private static final String NONAMED = "nonamed";
+
+    private static final Gson GSON = new Gson();
+
     private final Logger logger = LoggerFactory.getLogger(Bin2Json.class);
 
     private JBBPParser parser;
@@ -137,103 +151,286 @@ public class Bin2Json {
         }
     }
 
+    /**
+     * Convert {@link String} in hexadecimal string format to JSON string.
+     *
+     * Result equals to {@code convert(hexString).toString()}.
+     *
+     * @param hexString Data in hexadecimal string format. Example data: 03FAFF
+     * @return JSON string
+     * @throws ConversionException
+     */
+    public String convertToString(String hexString) throws ConversionException {
+        final JBBPFieldStruct data;
+        try {
+            data = parser.parse(HexUtils.hexToBytes(hexString));
+        } catch (IllegalArgumentException e) {
+            throw new ConversionException(String.format("Illegal hexstring , reason: %s", e.getMessage(), e));
+        } catch (IOException | JBBPException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        }
+        try {
+            final StringWriter out = new StringWriter();
+            final JsonWriter writer = new JsonWriter(out);
+            writer.setLenient(true);
+            writeStruct(new StreamOutput(writer), data);
+            writer.flush();
+            return out.toString();
+        } catch (IOException | JBBPException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        }
+    }
+
     private JsonObject convert(JBBPFieldStruct data) throws ConversionException {
         try {
             LocalDateTime start = LocalDateTime.now();
-            final JsonObject json = convertToJSon(data);
+            final TreeOutput output = new TreeOutput();
+            writeStruct(output, data);
+            final JsonObject json = output.getResult();
             if (logger.isTraceEnabled()) {
                 Duration duration = Duration.between(start, LocalDateTime.now());
                 logger.trace("Conversion time={}, json={}", duration, json.toString());
             }
             return json;
-        } catch (JBBPException e) {
+        } catch (IOException | JBBPException e) {
             throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
         }
     }
 
-    private JsonObject convertToJSon(final JBBPAbstractField field) throws ConversionException {
-        return convertToJSon(null, field);
+    private void writeStruct(final JsonOutput output, final JBBPFieldStruct struct)
+            throws IOException, ConversionException {
+        final JBBPAbstractField[] fields = struct.getArray();
+        if (output instanceof StreamOutput) {
+            int unnamed = 0;
+            for (final JBBPAbstractField f : fields) {
+                if (f.getFieldName() == null) {
+                    unnamed++;
+                }
+            }
+            if (unnamed > 1) {
+                // JsonObject keeps only the last one of the unnamed fields, the string has to be the same
+                final TreeOutput tree = new TreeOutput();
+                writeStruct(tree, struct);
+                ((StreamOutput) output).write(tree.getResult());
+                return;
+            }
+        }
+        output.beginObject();
+        for (final JBBPAbstractField f : fields) {
+            writeField(output, f);
+        }
+        output.endObject();
     }
 
-    private JsonObject convertToJSon(final JsonObject json, final JBBPAbstractField field) throws ConversionException {
-        JsonObject jsn = json == null ? new JsonObject() : json;
-
-        final String fieldName = field.getFieldName() == null ? "nonamed" : field.getFieldName();
+    private void writeField(final JsonOutput output, final JBBPAbstractField field)
+            throws IOException, ConversionException {
+        output.name(field.getFieldName() == null ? NONAMED : field.getFieldName());
         if (field instanceof JBBPAbstractArrayField) {
-            final JsonArray jsonArray = new JsonArray();
+            output.beginArray();
             if (field instanceof JBBPFieldArrayBit) {
                 for (final byte b : ((JBBPFieldArrayBit) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    output.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayBoolean) {
                 for (final boolean b : ((JBBPFieldArrayBoolean) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    output.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayByte) {
                 for (final byte b : ((JBBPFieldArrayByte) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    output.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayInt) {
                 for (final int b : ((JBBPFieldArrayInt) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    output.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayLong) {
                 for (final long b : ((JBBPFieldArrayLong) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    output.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayShort) {
                 for (final short b : ((JBBPFieldArrayShort) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    output.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayStruct) {
                 final JBBPFieldArrayStruct array = (JBBPFieldArrayStruct) field;
                 for (int i = 0; i < array.size(); i++) {
-                    jsonArray.add(convertToJSon(new JsonObject(), array.getElementAt(i)));
+                    output.beginObject();
+                    writeField(output, array.getElementAt(i));
+                    output.endObject();
                 }
             } else if (field instanceof JBBPFieldArrayUByte) {
                 for (final byte b : ((JBBPFieldArrayUByte) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b & 0xFF));
+                    output.value(b & 0xFF);
                 }
             } else if (field instanceof JBBPFieldArrayUShort) {
                 for (final short b : ((JBBPFieldArrayUShort) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b & 0xFFFF));
+                    output.value(b & 0xFFFF);
                 }
             } else {
                 throw new ConversionException(String.format("Unexpected field type '%s'", field));
             }
-            jsn.add(fieldName, jsonArray);
+            output.endArray();
         } else {
             if (field instanceof JBBPFieldBit) {
-                jsn.addProperty(fieldName, ((JBBPFieldBit) field).getAsInt());
+                output.value(((JBBPFieldBit) field).getAsInt());
             } else if (field instanceof JBBPFieldBoolean) {
-                jsn.addProperty(fieldName, ((JBBPFieldBoolean) field).getAsBool());
+                output.value(((JBBPFieldBoolean) field).getAsBool());
             } else if (field instanceof JBBPFieldByte) {
-                jsn.addProperty(fieldName, ((JBBPFieldByte) field).getAsInt());
+                output.value(((JBBPFieldByte) field).getAsInt());
             } else if (field instanceof JBBPFieldInt) {
-                jsn.addProperty(fieldName, ((JBBPFieldInt) field).getAsInt());
+                output.value(((JBBPFieldInt) field).getAsInt());
             } else if (field instanceof JBBPFieldLong) {
-                jsn.addProperty(fieldName, ((JBBPFieldLong) field).getAsLong());
+                output.value(((JBBPFieldLong) field).getAsLong());
             } else if (field instanceof JBBPFieldShort) {
-                jsn.addProperty(fieldName, ((JBBPFieldShort) field).getAsInt());
+                output.value(((JBBPFieldShort) field).getAsInt());
             } else if (field instanceof JBBPFieldStruct) {
-                final JBBPFieldStruct struct = (JBBPFieldStruct) field;
-                final JsonObject obj = new JsonObject();
-                for (final JBBPAbstractField f : struct.getArray()) {
-                    convertToJSon(obj, f);
-                }
-                if (json == null) {
-                    return obj;
-                } else {
-                    jsn.add(fieldName, obj);
-                }
+                writeStruct(output, (JBBPFieldStruct) field);
             } else if (field instanceof JBBPFieldUByte) {
-                jsn.addProperty(fieldName, ((JBBPFieldUByte) field).getAsInt());
+                output.value(((JBBPFieldUByte) field).getAsInt());
             } else if (field instanceof JBBPFieldUShort) {
-                jsn.addProperty(fieldName, ((JBBPFieldUShort) field).getAsInt());
+                output.value(((JBBPFieldUShort) field).getAsInt());
             } else {
                 throw new ConversionException(String.format("Unexpected field '%s'", field));
             }
         }
-        return jsn;
+    }
+
+    /**
+     * Receives the converted fields, either to build a {@link JsonObject} or to write the JSON string directly.
+     */
+    private interface JsonOutput {
+        void beginObject() throws IOException;
+
+        void endObject() throws IOException;
+
+        void beginArray() throws IOException;
+
+        void endArray() throws IOException;
+
+        void name(String name) throws IOException;
+
+        void value(long value) throws IOException;
+
+        void value(boolean value) throws IOException;
+    }
+
+    /**
+     * Writes the JSON string.
+     */
+    private static class StreamOutput implements JsonOutput {
+        private final JsonWriter writer;
+
+        StreamOutput(JsonWriter writer) {
+            this.writer = writer;
+        }
+
+        void write(JsonElement element) {
+            GSON.toJson(element, writer);
+        }
+
+        @Override
+        public void beginObject() throws IOException {
+            writer.beginObject();
+        }
+
+        @Override
+        public void endObject() throws IOException {
+            writer.endObject();
+        }
+
+        @Override
+        public void beginArray() throws IOException {
+            writer.beginArray();
+        }
+
+        @Override
+        public void endArray() throws IOException {
+            writer.endArray();
+        }
+
+        @Override
+        public void name(String name) throws IOException {
+            writer.name(name);
+        }
+
+        @Override
+        public void value(long value) throws IOException {
+            writer.value(value);
+        }
+
+        @Override
+        public void value(boolean value) throws IOException {
+            writer.value(value);
+        }
+    }
+
+    /**
+     * Builds a {@link JsonObject}. A field replaces an earlier field of the same name.
+     */
+    private static class TreeOutput implements JsonOutput {
+        private final Deque<JsonElement> open = new ArrayDeque<>();
+        private String name = NONAMED;
+        private JsonObject result = new JsonObject();
+
+        JsonObject getResult() {
+            return result;
+        }
+
+        @Override
+        public void beginObject() {
+            begin(new JsonObject());
+        }
+
+        @Override
+        public void endObject() {
+            end();
+        }
+
+        @Override
+        public void beginArray() {
+            begin(new JsonArray());
+        }
+
+        @Override
+        public void endArray() {
+            end();
+        }
+
+        @Override
+        public void name(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void value(long value) {
+            add(new JsonPrimitive(value));
+        }
+
+        @Override
+        public void value(boolean value) {
+            add(new JsonPrimitive(value));
+        }
+
+        private void begin(JsonElement element) {
+            if (open.isEmpty()) {
+                result = element.getAsJsonObject();
+            } else {
+                add(element);
+            }
+            open.push(element);
+        }
+
+        private void end() {
+            open.pop();
+        }
+
+        private void add(JsonElement element) {
+            final JsonElement parent = open.peek();
+            if (parent.isJsonArray()) {
+                parent.getAsJsonArray().add(element);
+            } else {
+                parent.getAsJsonObject().add(name, element);
+            }
+        }
     }
 }
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Converts a typical serial gateway frame. Compares preparing the parser and building the
+ * {@link com.google.gson.JsonObject} on every conversion with the cached parser and the streaming conversion used by
+ * {@link Bin2JsonTransformationService}.
+ *
+ * Run the main method from the IDE or with the test classpath, it is not part of the unit tests.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Bin2JsonBenchmark {
+
+    private static final String RULE = "ubyte header; ushort address; byte command; bit:4 flags; bit:4 channel; "
+            + "int temperature; ushort humidity; short [4] values; ubyte checksum;";
+
+    private static final String DATA = "AA01F20311FFFFFF9C019B0001FFFE00400080E7";
+
+    private Bin2Json cached;
+    private Bin2JsonTransformationService service;
+
+    @Setup
+    public void setUp() throws ConversionException, TransformationException {
+        cached = new Bin2Json(RULE);
+        service = new Bin2JsonTransformationService();
+        String expected = new Bin2Json(RULE).convert(DATA).toString();
+        if (!expected.equals(cached.convertToString(DATA)) || !expected.equals(service.transform(RULE, DATA))) {
+            throw new IllegalStateException("Streaming conversion differs from JsonObject conversion");
+        }
+    }
+
+    @Benchmark
+    public String prepareAndConvertToJsonObject() throws ConversionException {
+        return new Bin2Json(RULE).convert(DATA).toString();
+    }
+
+    @Benchmark
+    public String cachedParserJsonObject() throws ConversionException {
+        return cached.convert(DATA).toString();
+    }
+
+    @Benchmark
+    public String cachedParserStreaming() throws ConversionException {
+        return cached.convertToString(DATA);
+    }
+
+    @Benchmark
+    public String transformationService() throws TransformationException {
+        return service.transform(RULE, DATA);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(Bin2JsonBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests the conversions of the {@link Bin2Json} for every field type.
+ *
+ * @author agent - Initial contribution
+ */
+public class Bin2JsonTest {
+
+    /**
+     * Parser rule, data and expected JSON of every field type. A null JSON is not checked.
+     */
+    private static final String[][] CONVERSIONS = { //
+            { "bit:4 a; bit:4 b;", "A5", "{\"a\":5,\"b\":10}" }, //
+            { "bool a;", "01", "{\"a\":true}" }, //
+            { "byte a;", "FA", "{\"a\":-6}" }, //
+            { "ubyte a;", "FA", "{\"a\":250}" }, //
+            { "short a;", "FFFE", "{\"a\":-2}" }, //
+            { "ushort a;", "FFFE", "{\"a\":65534}" }, //
+            { "int a;", "FFFFFF9C", "{\"a\":-100}" }, //
+            { "long a;", "FFFFFFFFFFFFFFFE", "{\"a\":-2}" }, //
+            { "s { byte a; ubyte b; }", "FFFF", "{\"s\":{\"a\":-1,\"b\":255}}" }, //
+            { "bit:4 [2] a;", "A5", "{\"a\":[5,10]}" }, //
+            { "bool [2] a;", "0100", "{\"a\":[true,false]}" }, //
+            { "byte [2] a;", "FF01", "{\"a\":[-1,1]}" }, //
+            { "ubyte [2] a;", "FF01", "{\"a\":[255,1]}" }, //
+            { "short [2] a;", "FFFF0001", "{\"a\":[-1,1]}" }, //
+            { "ushort [2] a;", "FFFF0001", "{\"a\":[65535,1]}" }, //
+            { "int [2] a;", "FFFFFFFF00000001", "{\"a\":[-1,1]}" }, //
+            { "long [1] a;", "FFFFFFFFFFFFFFFF", "{\"a\":[-1]}" }, //
+            // The element names of struct arrays are up to the parser
+            { "s [2] { byte a; }", "0102", null }, //
+            { "byte;", "01", "{\"nonamed\":1}" }, //
+            // Only the last one of several unnamed fields is kept
+            { "byte; byte;", "0102", "{\"nonamed\":2}" } };
+
+    @Test
+    public void convertToStringEqualsConvert() throws ConversionException {
+        for (String[] conversion : CONVERSIONS) {
+            Bin2Json bin2Json = new Bin2Json(conversion[0]);
+            String json = bin2Json.convert(conversion[1]).toString();
+            if (conversion[2] != null) {
+                assertThat(conversion[0], json, is(conversion[2]));
+            }
+            assertThat(conversion[0], bin2Json.convertToString(conversion[1]), is(json));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Latency statistics of the transformations executed with one command line.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ExecStatistics {
+
+    private long count;
+    private long failures;
+    private long totalNanos;
+    private long maxNanos;
+    private long lastNanos;
+
+    synchronized void record(long nanos, boolean success) {
+        count++;
+        if (!success) {
+            failures++;
+        }
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        lastNanos = nanos;
+    }
+
+    /**
+     * Returns the number of executed transformations
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of transformations that failed or timed out
+     */
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    public synchronized long getLastMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastNanos);
+    }
+
+    public synchronized long getMaxMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos);
+    }
+
+    public synchronized long getAverageMillis() {
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos / count);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("count=%d, failures=%d, last=%d ms, avg=%d ms, max=%d ms", count, failures,
+                getLastMillis(), getAverageMillis(), getMaxMillis());
+    }
+}
@@ -12,12 +12,18 @@
  */
 package org.openhab.transform.exec.internal;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.io.net.exec.ExecUtil;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,19 +31,42 @@ import org.slf4j.LoggerFactory;
  * The implementation of {@link TransformationService} which transforms the
  * input by command line.
  *
+ * Command lines starting with {@value #PERSISTENT_PREFIX} are started once and kept running, see
+ * {@link ExecWorkerPool}.
+ *
  * @author Pauli Anttila
  */
 @NonNullByDefault
 @Component(immediate = true, property = { "smarthome.transform=EXEC" })
 public class ExecTransformationService implements TransformationService {
 
+    /**
+     * Prefix of command lines executed by long-lived processes
+     */
+    public static final String PERSISTENT_PREFIX = "persistent:";
+
+    private static final int TIMEOUT_MILLIS = 5000;
+    private static final int MAX_PERSISTENT_WORKERS = 2;
+
     private final Logger logger = LoggerFactory.getLogger(ExecTransformationService.class);
 
+    private final Map<String, ExecWorkerPool> workerPools = new ConcurrentHashMap<>();
+    private final Map<String, ExecStatistics> statistics = new ConcurrentHashMap<>();
+    private volatile boolean deactivated;
+
+    @Deactivate
+    public void deactivate() {
+        deactivated = true;
+        workerPools.values().forEach(ExecWorkerPool::close);
+        workerPools.clear();
+    }
+
     /**
      * Transforms the input <code>source</code> by the command line.
      *
      * @param commandLine the command to execute. Command line should contain %s string,
-     *                        which will be replaced by the input data.
+     *                        which will be replaced by the input data. With {@value #PERSISTENT_PREFIX} prefix, the
+     *                        command is kept running and the input data is written to its stdin instead.
      * @param source      the input to transform
      */
     @Override
@@ -46,15 +75,46 @@ public class ExecTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'commandLine' and 'source' must not be null");
         }
 
+        if (deactivated) {
+            throw new TransformationException("the transformation service is deactivated");
+        }
+
         logger.debug("about to transform '{}' by the commandline '{}'", source, commandLine);
 
-        long startTime = System.currentTimeMillis();
+        if (commandLine.startsWith(PERSISTENT_PREFIX)) {
+            ExecWorkerPool pool = workerPools.computeIfAbsent(commandLine,
+                    key -> new ExecWorkerPool(key.substring(PERSISTENT_PREFIX.length()), MAX_PERSISTENT_WORKERS,
+                            TIMEOUT_MILLIS));
+            if (deactivated) {
+                // deactivated concurrently, the pool might have been created after all pools were closed
+                workerPools.remove(commandLine);
+                pool.close();
+                throw new TransformationException("the transformation service is deactivated");
+            }
+            String result = pool.transform(source);
+            logger.trace("persistent command line execution: {}", pool);
+            return result;
+        }
+
+        long startTime = System.nanoTime();
 
         String formattedCommandLine = String.format(commandLine, source);
-        String result = ExecUtil.executeCommandLineAndWaitResponse(formattedCommandLine, 5000);
-        logger.trace("command line execution elapsed {} ms", System.currentTimeMillis() - startTime);
+        String result = ExecUtil.executeCommandLineAndWaitResponse(formattedCommandLine, TIMEOUT_MILLIS);
+        long elapsed = System.nanoTime() - startTime;
+        ExecStatistics commandStatistics = statistics.computeIfAbsent(commandLine, key -> new ExecStatistics());
+        commandStatistics.record(elapsed, result != null);
+        logger.trace("command line execution elapsed {} ms: {}", elapsed / 1000000, commandStatistics);
 
         return result;
     }
 
+    /**
+     * Returns the latency statistics of all command lines executed so far
+     */
+    public Map<String, ExecStatistics> getStatistics() {
+        Map<String, ExecStatistics> result = new HashMap<>(statistics);
+        workerPools.forEach((commandLine, pool) -> result.put(commandLine, pool.getStatistics()));
+        return Collections.unmodifiableMap(result);
+    }
+
 }
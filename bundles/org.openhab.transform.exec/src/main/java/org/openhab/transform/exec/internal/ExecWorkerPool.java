@@ -0,0 +1,293 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of long-lived processes of one command line. The processes read one input per line from stdin and write one
+ * result per line to stdout, in the same order.
+ *
+ * Each process handles one input at a time. Processes are started on demand, up to the maximum pool size. A process
+ * that exits, fails or does not answer in time is stopped and replaced by a new one on the next transformation.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ExecWorkerPool {
+
+    private static final String CMD_LINE_DELIMITER = "@@";
+    private static final AtomicInteger WORKER_COUNTER = new AtomicInteger();
+
+    /**
+     * One long-lived process
+     */
+    private class Worker {
+        private final Process process;
+        private final Writer stdin;
+        // empty once the process closed its output
+        private final BlockingQueue<Optional<String>> results = new LinkedBlockingQueue<>();
+        private volatile boolean alive = true;
+
+        public Worker() throws IOException {
+            process = new ProcessBuilder(command).start();
+            stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+            int id = WORKER_COUNTER.incrementAndGet();
+            startDaemon("OH-exec-worker-" + id, this::readResults);
+            startDaemon("OH-exec-worker-" + id + "-stderr", this::logErrors);
+        }
+
+        private void startDaemon(String name, Runnable runnable) {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void readResults() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    results.add(Optional.of(line));
+                }
+            } catch (IOException e) {
+                logger.debug("Reading output of '{}' failed: {}", commandLine, e.getMessage());
+            } finally {
+                alive = false;
+                // wakes up a transformation waiting for the result
+                results.add(Optional.empty());
+            }
+        }
+
+        private void logErrors() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    logger.debug("'{}' error output: {}", commandLine, line);
+                }
+            } catch (IOException e) {
+                // process stopped
+            }
+        }
+
+        public String process(String input) throws IOException, InterruptedException, TransformationException {
+            stdin.write(input.replace('\n', ' '));
+            stdin.write('\n');
+            stdin.flush();
+            Optional<String> result = results.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (result == null) {
+                throw new TransformationException("No result within " + timeoutMillis + " ms from '" + commandLine
+                        + "'");
+            }
+            if (!result.isPresent()) {
+                throw new TransformationException("Process '" + commandLine + "' exited");
+            }
+            return result.get();
+        }
+
+        public boolean isAlive() {
+            return alive;
+        }
+
+        public void stop() {
+            alive = false;
+            process.destroy();
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ExecWorkerPool.class);
+
+    private final String commandLine;
+    private final List<String> command = new ArrayList<>();
+    private final long timeoutMillis;
+    private final int maxWorkers;
+    private final ExecStatistics statistics = new ExecStatistics();
+
+    // guarded by this, waiting transformations are notified when a worker is released
+    private final Queue<Worker> idleWorkers = new ArrayDeque<>();
+    private int workers;
+    private long restarts;
+    private boolean closed;
+
+    /**
+     * @param commandLine command line of the process. Arguments are separated by whitespace, or by "@@" if the
+     *            command line contains it.
+     * @param maxWorkers maximum number of processes
+     * @param timeoutMillis maximum time to wait for a free process and for the result
+     */
+    public ExecWorkerPool(String commandLine, int maxWorkers, long timeoutMillis) {
+        this.commandLine = commandLine;
+        for (String argument : commandLine.contains(CMD_LINE_DELIMITER) ? commandLine.split(CMD_LINE_DELIMITER)
+                : commandLine.trim().split("\\s+")) {
+            command.add(argument);
+        }
+        this.maxWorkers = maxWorkers;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Transform the input with one of the processes
+     *
+     * @param input the input, newlines are replaced by spaces
+     * @return the line written by the process
+     * @throws TransformationException if no process was available in time, the process could not be started, or it
+     *             did not answer in time
+     */
+    public String transform(String input) throws TransformationException {
+        long start = System.nanoTime();
+        boolean success = false;
+        Worker worker = acquire();
+        try {
+            String result = worker.process(input);
+            success = true;
+            return result;
+        } catch (IOException e) {
+            throw new TransformationException("Communication with '" + commandLine + "' failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for '" + commandLine + "'", e);
+        } finally {
+            if (!success) {
+                // the process may still write the result later, it cannot be used anymore
+                worker.stop();
+            }
+            release(worker);
+            statistics.record(System.nanoTime() - start, success);
+        }
+    }
+
+    private Worker acquire() throws TransformationException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<Worker> exited = new ArrayList<>();
+        try {
+            synchronized (this) {
+                while (true) {
+                    if (closed) {
+                        throw new TransformationException("Worker pool of '" + commandLine + "' is closed");
+                    }
+                    Worker worker;
+                    while ((worker = idleWorkers.poll()) != null) {
+                        if (worker.isAlive()) {
+                            return worker;
+                        }
+                        // exited while idle
+                        workers--;
+                        restarts++;
+                        exited.add(worker);
+                    }
+                    if (workers < maxWorkers) {
+                        workers++;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new TransformationException(
+                                "No free process of '" + commandLine + "' within " + timeoutMillis + " ms");
+                    }
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new TransformationException("Interrupted while waiting for '" + commandLine + "'", e);
+                    }
+                }
+            }
+        } finally {
+            exited.forEach(this::stop);
+        }
+        try {
+            logger.debug("Starting process '{}'", commandLine);
+            return new Worker();
+        } catch (IOException e) {
+            synchronized (this) {
+                workers--;
+                notifyAll();
+            }
+            throw new TransformationException("Starting '" + commandLine + "' failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void release(Worker worker) {
+        synchronized (this) {
+            notifyAll();
+            if (worker.isAlive() && !closed) {
+                idleWorkers.add(worker);
+                return;
+            }
+            workers--;
+            if (closed) {
+                worker.stop();
+                return;
+            }
+            restarts++;
+        }
+        stop(worker);
+    }
+
+    private void stop(Worker worker) {
+        worker.stop();
+        logger.debug("Process '{}' stopped, a new one is started when needed", commandLine);
+    }
+
+    /**
+     * Stop all processes. Processes in use are stopped when their transformation is completed.
+     */
+    public void close() {
+        List<Worker> stopped = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            stopped.addAll(idleWorkers);
+            idleWorkers.clear();
+            workers -= stopped.size();
+            notifyAll();
+        }
+        stopped.forEach(Worker::stop);
+    }
+
+    public ExecStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns the number of processes that have been stopped due to failures
+     */
+    public synchronized long getRestarts() {
+        return restarts;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ExecWorkerPool [commandLine=%s, workers=%d/%d, restarts=%d, %s]", commandLine, workers,
+                maxWorkers, restarts, statistics);
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ExecWorkerPool} and the persistent command lines of the {@link ExecTransformationService} with
+ * a shell script echoing its input.
+ *
+ * @author agent - Initial contribution
+ */
+public class ExecWorkerPoolTest {
+
+    /**
+     * Echoes every input line with a prefix, sleeps first for the input "sleep" and exits for the input "exit"
+     */
+    private static final String ECHO_SCRIPT = "sh@@-c@@while read line; do "
+            + "if [ \"$line\" = sleep ]; then sleep 5; fi; if [ \"$line\" = exit ]; then exit 1; fi; "
+            + "echo \"echo $line\"; done";
+
+    private ExecWorkerPool pool;
+
+    @Before
+    public void setUp() {
+        assumeFalse(System.getProperty("os.name").toLowerCase().startsWith("windows"));
+    }
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws TransformationException {
+        pool = new ExecWorkerPool(ECHO_SCRIPT, 1, 2000);
+
+        assertThat(pool.transform("first"), is(equalTo("echo first")));
+        // the same process answers, newlines are replaced
+        assertThat(pool.transform("second\nline"), is(equalTo("echo second line")));
+        assertThat(pool.getRestarts(), is(equalTo(0L)));
+        assertThat(pool.getStatistics().getCount(), is(equalTo(2L)));
+    }
+
+    @Test
+    public void testTimeoutRestartsWorker() throws TransformationException {
+        pool = new ExecWorkerPool(ECHO_SCRIPT, 1, 500);
+
+        try {
+            pool.transform("sleep");
+            fail("Expected TransformationException");
+        } catch (TransformationException e) {
+            assertThat(e.getMessage(), containsString("No result within 500 ms"));
+        }
+        assertThat(pool.getRestarts(), is(equalTo(1L)));
+
+        // a new process is started, the late result of the stopped one is not returned
+        assertThat(pool.transform("after"), is(equalTo("echo after")));
+    }
+
+    @Test
+    public void testExitedWorkerFailsWithoutTimeout() throws TransformationException {
+        pool = new ExecWorkerPool(ECHO_SCRIPT, 1, 5000);
+
+        long start = System.nanoTime();
+        try {
+            pool.transform("exit");
+            fail("Expected TransformationException");
+        } catch (TransformationException e) {
+            assertThat(e.getMessage(), containsString("exited"));
+        }
+        assertThat(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4), is(true));
+        assertThat(pool.getRestarts(), is(equalTo(1L)));
+
+        assertThat(pool.transform("after"), is(equalTo("echo after")));
+    }
+
+    @Test
+    public void testPoolExhausted() throws Exception {
+        pool = new ExecWorkerPool(ECHO_SCRIPT, 1, 2000);
+        assertThat(pool.transform("warm up"), is(equalTo("echo warm up")));
+
+        // the only process is busy until the timeout, then it is stopped
+        CompletableFuture<Void> busy = CompletableFuture.runAsync(() -> {
+            try {
+                pool.transform("sleep");
+            } catch (TransformationException e) {
+                // expected
+            }
+        });
+        Thread.sleep(1000);
+
+        // woken up when the busy process is stopped, a new one is started before the timeout
+        assertThat(pool.transform("waiting"), is(equalTo("echo waiting")));
+        busy.get();
+        assertThat(pool.getRestarts(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testClosedPoolRejectsTransformations() throws TransformationException {
+        pool = new ExecWorkerPool(ECHO_SCRIPT, 1, 2000);
+        assertThat(pool.transform("first"), is(equalTo("echo first")));
+        pool.close();
+
+        try {
+            pool.transform("second");
+            fail("Expected TransformationException");
+        } catch (TransformationException e) {
+            assertThat(e.getMessage(), containsString("closed"));
+        }
+    }
+
+    @Test
+    public void testPersistentPrefix() throws TransformationException {
+        ExecTransformationService service = new ExecTransformationService();
+        String commandLine = ExecTransformationService.PERSISTENT_PREFIX + ECHO_SCRIPT;
+        try {
+            assertThat(service.transform(commandLine, "input"), is(equalTo("echo input")));
+            assertThat(service.getStatistics().keySet(), hasItem(commandLine));
+        } finally {
+            service.deactivate();
+        }
+
+        try {
+            service.transform(commandLine, "input");
+            fail("Expected TransformationException");
+        } catch (TransformationException e) {
+            assertThat(e.getMessage(), containsString("deactivated"));
+        }
+        assertThat(service.getStatistics().isEmpty(), is(true));
+    }
+}
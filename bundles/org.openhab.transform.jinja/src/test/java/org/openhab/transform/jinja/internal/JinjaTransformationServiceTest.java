@@ -12,6 +12,12 @@
  */
 package org.openhab.transform.jinja.internal;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Assert;
 import org.junit.Before;
@@ -62,4 +68,48 @@ public class JinjaTransformationServiceTest {
         Assert.assertEquals("Hello world!", transformedResponse);
     }
 
+    @Test
+    public void testParsedTemplateIsCached() throws TransformationException {
+        String template = "{{value_json.sensors[1].name}}: {{value_json.sensors[1].value}}";
+
+        Assert.assertEquals("b: 2", processor.transform(template,
+                "{\"sensors\":[{\"name\":\"a\",\"value\":1},{\"name\":\"b\",\"value\":2}]}"));
+        Assert.assertEquals("c: 4", processor.transform(template,
+                "{\"sensors\":[{\"name\":\"a\",\"value\":3},{\"name\":\"c\",\"value\":4}]}"));
+
+        Assert.assertEquals(1, processor.getCacheHits());
+        Assert.assertEquals(1, processor.getCacheMisses());
+        Assert.assertEquals(1, processor.getCachedTemplates());
+    }
+
+    @Test
+    public void testCachedTemplateIsRenderedConcurrently() throws Exception {
+        String template = "{% for sensor in value_json.sensors %}{% if sensor.value > 0 %}"
+                + "{{sensor.name}}={{sensor.value}};{% endif %}{% endfor %}";
+        int threads = 8;
+        int iterations = 200;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                final int id = thread;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < iterations; i++) {
+                        String json = "{\"sensors\":[{\"name\":\"t" + id + "\",\"value\":" + (i + 1)
+                                + "},{\"name\":\"off\",\"value\":0}]}";
+                        Assert.assertEquals("t" + id + "=" + (i + 1) + ";", processor.transform(template, json));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                // Rethrows assertion errors of the rendering threads
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, processor.getCachedTemplates());
+    }
 }
@@ -12,7 +12,7 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Assert;
@@ -129,4 +129,18 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testCompiledPathIsCached() throws TransformationException {
+        String json = "{'temperature': 21.5, 'humidity': 40}";
+        assertEquals("21.5", processor.transform("$.temperature", json));
+        assertEquals("40", processor.transform("$.humidity", json));
+        assertEquals("21.5", processor.transform("$.temperature", "{'temperature': 21.5}"));
+
+        assertEquals(1, processor.getCacheHits());
+        assertEquals(2, processor.getCacheMisses());
+
+        assertSame(processor.getPath("$.temperature"), processor.getPath("$.temperature"));
+        assertNotSame(processor.getPath("$.temperature"), processor.getPath("$.humidity"));
+    }
 }
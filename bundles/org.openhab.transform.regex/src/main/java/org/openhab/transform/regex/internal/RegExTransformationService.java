@@ -12,6 +12,10 @@
  */
 package org.openhab.transform.regex.internal;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -40,6 +44,23 @@ public class RegExTransformationService implements TransformationService {
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    /**
+     * Maximum number of compiled patterns kept in the cache
+     */
+    static final int MAX_CACHED_PATTERNS = 256;
+
+    private final Map<String, Pattern> patternCache = Collections
+            .synchronizedMap(new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.@Nullable Entry<String, Pattern> eldest) {
+                    return size() > MAX_CACHED_PATTERNS;
+                }
+            });
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
@@ -56,17 +77,18 @@ public class RegExTransformationService implements TransformationService {
             String regex = substMatcher.group(1);
             String substitution = substMatcher.group(2);
             String options = substMatcher.group(3);
+            Matcher replaceMatcher = getPattern(regex, 0).matcher(source.trim());
             if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
+                result = replaceMatcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
+                result = replaceMatcher.replaceFirst(substitution);
             }
             if (result != null) {
                 return result;
             }
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = getPattern("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -95,4 +117,35 @@ public class RegExTransformationService implements TransformationService {
         return result;
     }
 
+    /**
+     * Returns the compiled pattern, compiling and caching it on first use.
+     */
+    Pattern getPattern(String regex, int flags) {
+        String key = flags + ":" + regex;
+        Pattern pattern = patternCache.get(key);
+        if (pattern != null) {
+            cacheHits.incrementAndGet();
+            return pattern;
+        }
+        pattern = Pattern.compile(regex, flags);
+        patternCache.put(key, pattern);
+        logger.trace("compiled pattern '{}', cache hits: {}, misses: {}", regex, cacheHits.get(),
+                cacheMisses.incrementAndGet());
+        return pattern;
+    }
+
+    /**
+     * Returns the number of transformations that used a cached compiled pattern
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Returns the number of transformations that had to compile the pattern
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
 }
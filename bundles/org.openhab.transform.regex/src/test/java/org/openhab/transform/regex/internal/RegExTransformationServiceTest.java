@@ -12,7 +12,9 @@
  */
 package org.openhab.transform.regex.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.util.regex.Pattern;
 
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
@@ -79,4 +81,18 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testCompiledPatternIsCached() throws TransformationException {
+        assertEquals("8", processor.transform(".*?<current_conditions>.*?<temp_c data=\"(.*?)\".*", source));
+        assertEquals("8", processor.transform(".*?<current_conditions>.*?<temp_c data=\"(.*?)\".*", source));
+        assertEquals("On", processor.transform("s/1/On/g", "1"));
+
+        assertEquals(1, processor.getCacheHits());
+        assertEquals(2, processor.getCacheMisses());
+
+        assertSame(processor.getPattern("1", 0), processor.getPattern("1", 0));
+        assertNotSame(processor.getPattern("1", 0), processor.getPattern("1", Pattern.DOTALL));
+    }
+
 }
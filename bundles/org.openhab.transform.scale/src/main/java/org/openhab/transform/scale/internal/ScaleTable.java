@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Preprocessed scale for fast lookups.
+ *
+ * The distinct bounds of all ranges split the number line into segments: the bounds themselves and the open
+ * intervals between them. Every range either contains a segment completely or not at all, so the label of the first
+ * matching range is computed once per segment when the scale is loaded. A lookup is then a binary search over the
+ * sorted bounds.
+ *
+ * The format is split into literal parts and placeholders when the scale is loaded.
+ *
+ * @author agent - Initial contribution
+ */
+public class ScaleTable {
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    static final String FORMAT_VALUE = "%value%";
+    static final String FORMAT_LABEL = "%label%";
+
+    private final BigDecimal[] bounds;
+    /**
+     * Label of each segment: segment 2*i is the interval below bounds[i], segment 2*i+1 is bounds[i] itself and the
+     * last segment is the interval above all bounds. Null if no range contains the segment.
+     */
+    private final String[] labels;
+    private final String nonNumeric;
+
+    /** Literal parts of the format, there is one placeholder between each two consecutive parts */
+    private final String[] formatParts;
+    /** true for {@link #FORMAT_VALUE}, false for {@link #FORMAT_LABEL} */
+    private final boolean[] formatValues;
+
+    /**
+     * @param ranges ranges with their labels, in the order of evaluation
+     * @param nonNumeric result for non-numeric inputs, or null if they are not supported
+     * @param format format of the result, containing {@link #FORMAT_VALUE} and {@link #FORMAT_LABEL} placeholders
+     */
+    public ScaleTable(Map<Range, String> ranges, String nonNumeric, String format) {
+        this.nonNumeric = nonNumeric;
+
+        TreeSet<BigDecimal> distinctBounds = new TreeSet<>();
+        for (Range range : ranges.keySet()) {
+            if (range.min != null) {
+                distinctBounds.add(range.min);
+            }
+            if (range.max != null) {
+                distinctBounds.add(range.max);
+            }
+        }
+        bounds = distinctBounds.toArray(new BigDecimal[distinctBounds.size()]);
+        labels = new String[2 * bounds.length + 1];
+        for (int segment = 0; segment < labels.length; segment++) {
+            BigDecimal representative = representative(segment);
+            for (Map.Entry<Range, String> entry : ranges.entrySet()) {
+                if (entry.getKey().contains(representative)) {
+                    labels[segment] = entry.getValue();
+                    break;
+                }
+            }
+        }
+
+        List<String> parts = new ArrayList<>();
+        List<Boolean> values = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int valueIndex = format.indexOf(FORMAT_VALUE, start);
+            int labelIndex = format.indexOf(FORMAT_LABEL, start);
+            if (valueIndex < 0 && labelIndex < 0) {
+                break;
+            }
+            boolean value = labelIndex < 0 || (valueIndex >= 0 && valueIndex < labelIndex);
+            int index = value ? valueIndex : labelIndex;
+            parts.add(format.substring(start, index));
+            values.add(value);
+            start = index + (value ? FORMAT_VALUE : FORMAT_LABEL).length();
+        }
+        parts.add(format.substring(start));
+        formatParts = parts.toArray(new String[parts.size()]);
+        formatValues = new boolean[values.size()];
+        for (int i = 0; i < formatValues.length; i++) {
+            formatValues[i] = values.get(i);
+        }
+    }
+
+    /**
+     * Returns a value inside the given segment
+     */
+    private BigDecimal representative(int segment) {
+        if (bounds.length == 0) {
+            return BigDecimal.ZERO;
+        }
+        int index = segment / 2;
+        if (segment % 2 == 1) {
+            return bounds[index];
+        } else if (index == 0) {
+            return bounds[0].subtract(BigDecimal.ONE);
+        } else if (index == bounds.length) {
+            return bounds[index - 1].add(BigDecimal.ONE);
+        } else {
+            // dividing by two always gives exact result
+            return bounds[index - 1].add(bounds[index]).divide(TWO);
+        }
+    }
+
+    /**
+     * Returns the label of the first range containing the given value, or null if there is no such range
+     */
+    public String getLabel(BigDecimal value) {
+        int index = Arrays.binarySearch(bounds, value);
+        return labels[index >= 0 ? 2 * index + 1 : -2 * (index + 1)];
+    }
+
+    /**
+     * Returns the result for non-numeric inputs, or null if they are not supported
+     */
+    public String getNonNumeric() {
+        return nonNumeric;
+    }
+
+    /**
+     * Returns the format with the placeholders replaced by the given value and label
+     */
+    public String format(String value, String label) {
+        if (formatValues.length == 1 && !formatValues[0] && formatParts[0].isEmpty() && formatParts[1].isEmpty()) {
+            // default format
+            return label;
+        }
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < formatValues.length; i++) {
+            result.append(formatParts[i]).append(formatValues[i] ? value : label);
+        }
+        return result.append(formatParts[formatValues.length]).toString();
+    }
+}
@@ -14,7 +14,10 @@ package org.openhab.transform.scale.internal;
 
 import static org.junit.Assert.fail;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.measure.quantity.Dimensionless;
 
@@ -150,4 +153,25 @@ public class ScaleTransformServiceTest {
         Assert.assertEquals("Correcte (992) !", transformedResponse);
     }
 
+    @Test
+    public void testScaleTableBounds() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.openClosed(new BigDecimal("0"), new BigDecimal("10")), "a");
+        ranges.put(Range.closed(new BigDecimal("5"), new BigDecimal("20.5")), "b");
+        ranges.put(Range.greaterThan(new BigDecimal("20.50")), "c");
+        ScaleTable table = new ScaleTable(ranges, null, "%label% ($%value%)");
+
+        Assert.assertNull(table.getLabel(new BigDecimal("-1")));
+        Assert.assertNull(table.getLabel(new BigDecimal("0")));
+        Assert.assertEquals("a", table.getLabel(new BigDecimal("0.001")));
+        Assert.assertEquals("a", table.getLabel(new BigDecimal("7")));
+        Assert.assertEquals("a", table.getLabel(new BigDecimal("10")));
+        Assert.assertEquals("b", table.getLabel(new BigDecimal("10.0001")));
+        Assert.assertEquals("b", table.getLabel(new BigDecimal("20.5")));
+        Assert.assertEquals("c", table.getLabel(new BigDecimal("20.5001")));
+        Assert.assertEquals("c", table.getLabel(new BigDecimal("1E6")));
+
+        Assert.assertEquals("a ($7)", table.format("7", "a"));
+    }
+
 }
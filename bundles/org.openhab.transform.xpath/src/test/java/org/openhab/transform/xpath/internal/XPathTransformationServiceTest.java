@@ -41,4 +41,17 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testContextIsReused() throws TransformationException {
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+
+        assertEquals(1, processor.getPooledContexts());
+        assertEquals(1, processor.getCacheHits());
+        assertEquals(1, processor.getCacheMisses());
+
+        processor.deactivate();
+        assertEquals(0, processor.getPooledContexts());
+    }
+
 }
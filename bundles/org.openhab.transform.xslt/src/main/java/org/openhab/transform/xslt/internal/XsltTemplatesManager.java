@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xslt.internal;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache for compiled XSLT stylesheets. The compiled {@link Templates} are thread-safe and shared by all
+ * transformations using the same stylesheet.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = XsltTemplatesManager.class)
+public class XsltTemplatesManager {
+
+    public static final String TRANSFORM_FOLDER = ConfigConstants.getConfigFolder() + File.separator
+            + TransformationService.TRANSFORM_FOLDER_NAME;
+
+    private final Logger logger = LoggerFactory.getLogger(XsltTemplatesManager.class);
+    private final Map<Path, Templates> templatesMap = new ConcurrentHashMap<>();
+
+    /**
+     * Get compiled stylesheet from cache. If it is not in the cache, then load it from storage, compile it and put it
+     * into the cache.
+     *
+     * @param filename name of the XSLT file in the transform folder, may contain subfolders
+     * @return compiled stylesheet
+     * @throws TransformationException if the stylesheet could not be loaded or compiled
+     */
+    public Templates getTemplates(String filename) throws TransformationException {
+        Path path = toKey(Paths.get(TRANSFORM_FOLDER, filename));
+        Templates templates = templatesMap.get(path);
+        if (templates != null) {
+            logger.trace("Loading XSLT {} from cache.", path);
+            return templates;
+        }
+        synchronized (templatesMap) {
+            templates = templatesMap.get(path);
+            if (templates == null) {
+                logger.debug("Compiling XSLT {}", path);
+                try {
+                    templates = TransformerFactory.newInstance().newTemplates(new StreamSource(path.toFile()));
+                } catch (TransformerConfigurationException e) {
+                    throw new TransformationException("An error occurred while compiling XSLT. " + e.getMessage(), e);
+                }
+                templatesMap.put(path, templates);
+            }
+            return templates;
+        }
+    }
+
+    /**
+     * Remove a compiled stylesheet from cache.
+     *
+     * @param path path of the modified or deleted file
+     */
+    public void removeFromCache(Path path) {
+        Path key = toKey(path);
+        if (templatesMap.remove(key) != null) {
+            logger.debug("Removed XSLT {} from cache.", key);
+        }
+    }
+
+    /**
+     * Remove all compiled stylesheets from cache.
+     */
+    public void clearCache() {
+        logger.debug("Removing all XSLT from cache.");
+        templatesMap.clear();
+    }
+
+    private static Path toKey(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
@@ -12,22 +12,20 @@
  */
 package org.openhab.transform.xslt.internal;
 
-import java.io.File;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 
 import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
-import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,6 +40,16 @@ import org.slf4j.LoggerFactory;
 public class XsltTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
+    private @NonNullByDefault({}) XsltTemplatesManager manager;
+
+    @Reference
+    public void setXsltTemplatesManager(XsltTemplatesManager manager) {
+        this.manager = manager;
+    }
+
+    public void unsetXsltTemplatesManager(XsltTemplatesManager manager) {
+        this.manager = null;
+    }
 
     /**
      * Transforms the input <code>source</code> by XSLT.
@@ -60,29 +68,33 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        logger.debug("about to transform '{}' by the function '{}'", source, filename);
 
-        try {
-            String path = ConfigConstants.getConfigFolder() + File.separator
-                    + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
-            xsl = new StreamSource(new File(path));
-        } catch (Exception e) {
-            String message = "opening file '" + filename + "' throws exception";
+        return transform(filename, new StreamSource(new StringReader(source)));
+    }
 
-            logger.error("{}", message, e);
-            throw new TransformationException(message, e);
-        }
+    /**
+     * Transforms the XML read from the <code>source</code> stream by XSLT, without reading the whole input into memory
+     * first. The stream is not closed.
+     *
+     * @param filename the name of the file which contains the XSLT transformation rule.
+     *            The name may contain subfoldernames as well
+     * @param source the input to transform. The encoding is detected from the XML declaration.
+     */
+    public String transform(String filename, InputStream source) throws TransformationException {
+        logger.debug("about to transform stream by the function '{}'", filename);
 
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
+        return transform(filename, new StreamSource(source));
+    }
 
-        StringReader xml = new StringReader(source);
+    private String transform(String filename, Source xml) throws TransformationException {
         StringWriter out = new StringWriter();
 
-        Transformer transformer;
-
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
-            transformer.transform(new StreamSource(xml), new StreamResult(out));
+            manager.getTemplates(filename).newTransformer().transform(xml, new StreamResult(out));
+        } catch (TransformationException e) {
+            logger.error("{}", e.getMessage(), e);
+            throw e;
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
             throw new TransformationException("transformation throws exception", e);
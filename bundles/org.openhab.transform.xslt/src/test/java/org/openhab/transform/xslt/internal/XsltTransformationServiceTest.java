@@ -12,7 +12,10 @@
  */
 package org.openhab.transform.xslt.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
@@ -25,10 +28,13 @@ import org.openhab.transform.xslt.internal.XsltTransformationService;
 public class XsltTransformationServiceTest extends AbstractTransformationServiceTest {
 
     private XsltTransformationService processor;
+    private XsltTemplatesManager manager;
 
     @Before
     public void init() {
+        manager = new XsltTemplatesManager();
         processor = new XsltTransformationService();
+        processor.setXsltTemplatesManager(manager);
     }
 
     @Test
@@ -41,4 +47,20 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformStreamByXSLT() throws TransformationException {
+
+        // method under test
+        String transformedResponse = processor.transform("http/google_weather.xsl",
+                new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)));
+
+        // Asserts
+        assertEquals("8", transformedResponse);
+    }
+
+    @Test
+    public void testCompiledStylesheetIsCached() throws TransformationException {
+        assertSame(manager.getTemplates("http/google_weather.xsl"), manager.getTemplates("http/google_weather.xsl"));
+    }
+
 }
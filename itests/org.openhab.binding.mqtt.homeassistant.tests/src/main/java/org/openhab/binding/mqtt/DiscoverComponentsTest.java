@@ -61,6 +61,9 @@ public class DiscoverComponentsTest extends JavaOSGiTest {
     @Mock
     TransformationServiceProvider transformationServiceProvider;
 
+    @Mock
+    ChannelStateUpdateListener channelStateUpdateListener;
+
     @Before
     public void setUp() {
         initMocks(this);
@@ -106,4 +109,32 @@ public class DiscoverComponentsTest extends JavaOSGiTest {
         discover.startDiscovery(connection, 50, discoveryIds, discovered).get(100, TimeUnit.MILLISECONDS);
 
     }
+
+    @Test
+    public void unchangedConfigIsNotParsed() throws InterruptedException, ExecutionException, TimeoutException {
+        ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+
+        Gson gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory()).create();
+
+        DiscoverComponents discover = new DiscoverComponents(ThingChannelConstants.testHomeAssistantThing, scheduler,
+                channelStateUpdateListener, gson, transformationServiceProvider);
+
+        HandlerConfiguration config = new HandlerConfiguration("homeassistant",
+                Collections.singletonList("switch/object"));
+
+        Set<HaID> discoveryIds = new HashSet<>();
+        discoveryIds.addAll(HaID.fromConfig(config));
+
+        final String configTopic = "homeassistant/switch/object/config";
+        final String configJSON = "{'name':'testname','state_topic':'switch/state','command_topic':'switch/set'}";
+        doReturn(true).when(discovered).componentConfigUnchanged(any(), eq(configJSON));
+
+        discover.startDiscovery(connection, 0, discoveryIds, discovered).get(100, TimeUnit.MILLISECONDS);
+        discover.processMessage(configTopic, configJSON.getBytes());
+
+        verify(discovered).componentConfigUnchanged(eq(new HaID(configTopic)), eq(configJSON));
+        verify(discovered, never()).componentDiscovered(any(), any());
+
+        discover.stopDiscovery();
+    }
 }